@@ -5,17 +5,31 @@ import com.comphenix.protocol.ProtocolManager;
 import com.google.gson.stream.MalformedJsonException;
 import io.seanbailey.database.DatabaseManager;
 import net.atomichive.core.command.*;
+import net.atomichive.core.database.CircuitBreaker;
+import net.atomichive.core.database.ConnectionPool;
+import net.atomichive.core.database.DatabaseExecutor;
+import net.atomichive.core.database.InstrumentedStorageBackend;
+import net.atomichive.core.database.JdbcStorageBackend;
+import net.atomichive.core.database.PostgresStorageBackend;
+import net.atomichive.core.database.QueryMetrics;
+import net.atomichive.core.database.ResilientStorageBackend;
+import net.atomichive.core.database.SQLiteStorageBackend;
+import net.atomichive.core.database.StorageBackend;
+import net.atomichive.core.database.WriteJournal;
 import net.atomichive.core.entity.EntityClock;
 import net.atomichive.core.entity.EntityManager;
+import net.atomichive.core.entity.EntityReaper;
 import net.atomichive.core.item.ItemManager;
 import net.atomichive.core.listeners.*;
 import net.atomichive.core.player.AtomicPlayer;
 import net.atomichive.core.player.AtomicPlayerDAO;
 import net.atomichive.core.player.PlayerManager;
+import net.atomichive.core.util.ManagementUtil;
 import net.atomichive.core.warp.WarpDAO;
 import net.atomichive.core.warp.WarpManager;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scoreboard.DisplaySlot;
@@ -23,7 +37,10 @@ import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 
+import java.io.File;
 import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,8 +57,13 @@ public class Main extends JavaPlugin {
     private PlayerManager playerManager;
     private EntityManager entityManager;
     private ItemManager itemManager;
-    private DatabaseManager databaseManager;
+    private StorageBackend storage;
+    private ConnectionPool connectionPool;
+    private QueryMetrics queryMetrics;
+    private DatabaseExecutor databaseExecutor;
     private WarpManager warpManager;
+    private EntityClock entityClock;
+    private PacketSnapshotPublisher packetSnapshots;
     private ProtocolManager protocolManager;
     private Scoreboard scoreboard;
 
@@ -60,7 +82,7 @@ public class Main extends JavaPlugin {
         saveDefaultConfig();
         config = this.getConfig();
 
-        playerManager = new PlayerManager();
+        playerManager = new PlayerManager(config.getInt("prefetch_expiry", 30));
         entityManager = new EntityManager("entities.json");
         itemManager = new ItemManager("items.json");
         warpManager = new WarpManager();
@@ -95,18 +117,56 @@ public class Main extends JavaPlugin {
         // Add currently logged in players to player manager
         log(Level.INFO, "Loading players into memory...");
         for (Player player : Bukkit.getOnlinePlayers()) {
+
             AtomicPlayer atomicPlayer = playerManager.addPlayer(player);
+
+            if (atomicPlayer == null) {
+                player.kickPlayer("Could not load your player data. Please rejoin shortly.");
+                continue;
+            }
+
             player.setScoreboard(scoreboard);
             atomicPlayer.updateExperience();
+
         }
 
         log(Level.INFO, "Loading warps from database...");
         warpManager.load();
 
+        // Seed in the background; online players are already ranked
+        log(Level.INFO, "Loading leaderboard...");
+        databaseExecutor.submit(AtomicPlayerDAO::getRankings).whenCompleteAsync((entries, e) -> {
+            if (e != null) {
+                log(Level.WARNING, "Failed to load leaderboard: " + e.getMessage());
+            } else if (playerManager != null) {
+                playerManager.getLeaderboard().seed(entries);
+                log(Level.INFO, String.format("Ranked %d players.", entries.size()));
+            }
+        }, databaseExecutor.mainThread());
+
         log(Level.INFO, "Creating custom menus...");
 
+        log(Level.INFO, "Starting player save task...");
+        long saveInterval = config.getLong("save_interval", 60L) * 20L;
+        playerManager.getFlusher().runTaskTimer(this, saveInterval, saveInterval);
+
         log(Level.INFO, "Starting entity ability clock...");
-        new EntityClock().runTaskTimer(this, 0L, 5L);
+        entityClock = new EntityClock(
+                config.getInt("entity_clock_period", 5),
+                config.getLong("entity_clock_budget", 5000000L),
+                config.getInt("entity_clock_backlog", 1000)
+        );
+        entityClock.runTaskTimer(this, 0L, 1L);
+        ManagementUtil.register("AbilityMetrics", entityManager.getAbilityMetrics());
+        ManagementUtil.register("Players", playerManager);
+
+        log(Level.INFO, "Starting packet snapshots...");
+        packetSnapshots = new PacketSnapshotPublisher();
+        packetSnapshots.runTaskTimer(this, 0L, 1L);
+
+        log(Level.INFO, "Starting entity reaper...");
+        new EntityReaper(config.getLong("reaper_budget", 1000000L))
+                .runTaskTimer(this, 20L, config.getLong("reaper_interval", 20L));
 
     }
 
@@ -120,15 +180,30 @@ public class Main extends JavaPlugin {
         logBreak();
         log(Level.INFO, "Updating player information in batch...");
 
-        playerManager.removeAll();
+        if (!playerManager.removeAll(config.getLong("shutdown_save_timeout", 10000L))) {
+            log(Level.SEVERE, String.format(
+                    "Failed to save %d players before shutdown.",
+                    playerManager.getFlusher().getPendingCount()
+            ));
+        }
+
+        ManagementUtil.unregister("AbilityMetrics");
+        ManagementUtil.unregister("Players");
 
         // Empty player manager
         playerManager = null;
         entityManager = null;
         warpManager = null;
 
-        log(Level.INFO, "Closing database connection...");
-        databaseManager.closeConnection();
+        log(Level.INFO, "Closing database connections...");
+
+        if (!databaseExecutor.shutdown(config.getLong("shutdown_save_timeout", 10000L)))
+            log(Level.SEVERE, "Database tasks did not finish before shutdown.");
+
+        ManagementUtil.unregister("DatabaseExecutor");
+        storage.close();
+        ManagementUtil.unregister("ConnectionPool");
+        ManagementUtil.unregister("Queries");
 
         log(Level.INFO, "Goodbye!");
         logBreak();
@@ -146,8 +221,120 @@ public class Main extends JavaPlugin {
         log(Level.INFO, "Initialising database...");
 
 
-        // Init database manager
-        databaseManager = new DatabaseManager(
+        // Create the configured storage backend
+        StorageBackend backend = createStorage();
+        log(Level.INFO, "Using " + backend.getName() + " storage.");
+
+        if (config.getBoolean("auto_migrate", true)) {
+            try {
+                backend.migrate();
+            } catch (SQLException e) {
+                log(Level.SEVERE, "Failed to migrate database: " + e.getMessage());
+            }
+        }
+
+        if (backend instanceof JdbcStorageBackend) {
+            connectionPool = ((JdbcStorageBackend) backend).getPool();
+            ManagementUtil.register("ConnectionPool", connectionPool);
+        }
+
+        // Time every query, and catch any made on the main thread
+        queryMetrics = new QueryMetrics(getSlowQueryThresholds());
+        backend = new InstrumentedStorageBackend(backend, queryMetrics);
+        ManagementUtil.register("Queries", queryMetrics);
+
+        // Fail fast while the database is down, journalling writes to disk
+        if (config.getBoolean("resilience", true)) {
+            backend = new ResilientStorageBackend(
+                    backend,
+                    new CircuitBreaker(
+                            config.getInt("breaker_failures", 3),
+                            config.getLong("breaker_cooldown", 30L) * 1000L
+                    ),
+                    new WriteJournal(new File(getDataFolder(), "journal.jsonl")),
+                    logger
+            );
+        }
+
+        storage = backend;
+
+        // Run background database work off the main thread
+        databaseExecutor = new DatabaseExecutor(
+                config.getInt("db_threads", 2),
+                config.getInt("db_queue_size", 1000),
+                "virtual".equalsIgnoreCase(config.getString("db_thread_model", "platform")),
+                config.getInt("db_completions_per_tick", 100)
+        );
+
+        Bukkit.getScheduler().runTaskTimer(this, databaseExecutor::drain, 1L, 1L);
+        ManagementUtil.register("DatabaseExecutor", databaseExecutor);
+
+        if (databaseExecutor.isVirtual())
+            log(Level.INFO, "Using virtual threads for database work.");
+
+        // Replay journalled writes in the background once the database is back
+        if (storage instanceof ResilientStorageBackend) {
+
+            ResilientStorageBackend resilient = (ResilientStorageBackend) storage;
+            long interval = config.getLong("breaker_cooldown", 30L) * 20L;
+
+            Bukkit.getScheduler().runTaskTimer(this, () -> {
+                if (!resilient.getJournal().isEmpty())
+                    databaseExecutor.execute("replay write journal", resilient::recover);
+            }, interval, interval);
+
+        }
+
+        // Initialise data access objects
+        AtomicPlayerDAO.init(storage);
+        WarpDAO.init(storage);
+
+        logBreak();
+
+    }
+
+
+    /**
+     * Reads slow query thresholds from config.yml. Operations
+     * without their own threshold use the default.
+     *
+     * @return Milliseconds before each operation is slow.
+     */
+    private Map<QueryMetrics.Operation, Long> getSlowQueryThresholds () {
+
+        Map<QueryMetrics.Operation, Long> thresholds = new EnumMap<>(QueryMetrics.Operation.class);
+        ConfigurationSection section = config.getConfigurationSection("slow_query_thresholds");
+        long fallback = (section == null) ? 100L : section.getLong("default", 100L);
+
+        for (QueryMetrics.Operation operation : QueryMetrics.Operation.values()) {
+            String key = operation.name().toLowerCase();
+            thresholds.put(operation, (section == null) ? fallback : section.getLong(key, fallback));
+        }
+
+        return thresholds;
+
+    }
+
+
+    /**
+     * Creates the storage backend chosen in config.yml.
+     *
+     * @return Storage backend.
+     */
+    private StorageBackend createStorage () {
+
+        long timeout = config.getLong("pool_timeout", 5000L);
+
+        // Local, single file storage
+        if ("sqlite".equalsIgnoreCase(config.getString("storage", "postgres"))) {
+            return new SQLiteStorageBackend(
+                    new File(getDataFolder(), config.getString("sqlite_file", "atomic_core.db")),
+                    timeout
+            );
+        }
+
+        // Migrations still run through the database manager
+        DatabaseManager databaseManager = new DatabaseManager(
                 config.getString("database", "atomic_core"),
                 config.getString("host", DatabaseManager.DEFAULT_HOST),
                 config.getInt("port", DatabaseManager.DEFAULT_PORT),
@@ -155,23 +342,23 @@ public class Main extends JavaPlugin {
                 config.getString("password", DatabaseManager.DEFAULT_PASSWORD)
         );
 
-
-        // Attempt to initialise data access objects
-        try {
-            AtomicPlayerDAO.init(databaseManager);
-            WarpDAO.init(databaseManager);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
         databaseManager.setLogger(logger);
-        databaseManager.setMigrationsPath("migrations");
 
-        if (config.getBoolean("auto_migrate", true)) {
-            databaseManager.migrate();
-        }
+        // Pool connections for the data access objects
+        ConnectionPool pool = new ConnectionPool(
+                String.format(
+                        "jdbc:postgresql://%s:%d/%s",
+                        config.getString("host", DatabaseManager.DEFAULT_HOST),
+                        config.getInt("port", DatabaseManager.DEFAULT_PORT),
+                        config.getString("database", "atomic_core")
+                ),
+                config.getString("username", DatabaseManager.DEFAULT_USERNAME),
+                config.getString("password", DatabaseManager.DEFAULT_PASSWORD),
+                config.getInt("pool_size", 4),
+                timeout
+        );
 
-        logBreak();
+        return new PostgresStorageBackend(pool, databaseManager);
 
     }
 
@@ -184,6 +371,7 @@ public class Main extends JavaPlugin {
         log(Level.INFO, "Registering commands...");
 
         new CommandClear();
+        new CommandCore();
         new CommandEntity();
         new CommandExperience();
         new CommandFly();
@@ -195,6 +383,7 @@ public class Main extends JavaPlugin {
         new CommandJump();
         new CommandKill();
         new CommandKillAll();
+        new CommandLeaderboard();
         new CommandLevel();
         new CommandListen();
         new CommandMessage();
@@ -226,6 +415,7 @@ public class Main extends JavaPlugin {
 
         // Put all event handlers here
         new BowListener();
+        new ChunkUnloadListener();
         new CommandListener();
         new DeathListener();
         new DropListener();
@@ -271,10 +461,34 @@ public class Main extends JavaPlugin {
         return entityManager;
     }
 
+    public EntityClock getEntityClock () {
+        return entityClock;
+    }
+
+    public PacketSnapshotPublisher getPacketSnapshots () {
+        return packetSnapshots;
+    }
+
     public ItemManager getItemManager () {
         return itemManager;
     }
 
+    public StorageBackend getStorage () {
+        return storage;
+    }
+
+    public ConnectionPool getConnectionPool () {
+        return connectionPool;
+    }
+
+    public QueryMetrics getQueryMetrics () {
+        return queryMetrics;
+    }
+
+    public DatabaseExecutor getDatabaseExecutor () {
+        return databaseExecutor;
+    }
+
     public WarpManager getWarpManager () {
         return warpManager;
     }
@@ -3,6 +3,8 @@ package net.atomichive.core.command;
 import net.atomichive.core.Main;
 import net.atomichive.core.exception.CommandException;
 import net.atomichive.core.exception.Reason;
+import net.atomichive.core.exception.UnknownPlayerException;
+import net.atomichive.core.player.AtomicPlayer;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -129,6 +131,26 @@ public abstract class BaseCommand implements CommandExecutor {
             throws CommandException;
 
 
+    /**
+     * Retrieves the atomic player of an online player.
+     *
+     * @param player Bukkit player.
+     * @return Corresponding atomic player.
+     * @throws UnknownPlayerException if the player has not been loaded.
+     */
+    static AtomicPlayer getAtomicPlayer (Player player) throws UnknownPlayerException {
+
+        AtomicPlayer atomicPlayer = Main.getInstance().getPlayerManager().get(player);
+
+        // Ensure player data has been loaded
+        if (atomicPlayer == null)
+            throw new UnknownPlayerException(player.getName());
+
+        return atomicPlayer;
+
+    }
+
+
 	/*
         Getters from here down.
 	 */
@@ -0,0 +1,222 @@
+package net.atomichive.core.command;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.database.CircuitBreaker;
+import net.atomichive.core.database.ConnectionPool;
+import net.atomichive.core.database.DatabaseExecutor;
+import net.atomichive.core.database.QueryMetrics;
+import net.atomichive.core.database.QueryStats;
+import net.atomichive.core.database.ResilientStorageBackend;
+import net.atomichive.core.database.StorageBackend;
+import net.atomichive.core.exception.CommandException;
+import net.atomichive.core.exception.Reason;
+import net.atomichive.core.util.PaginatedResult;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.Map;
+
+/**
+ * Diagnostics for the plugin itself.
+ */
+public class CommandCore extends BaseCommand {
+
+
+    public CommandCore () {
+        super(
+                "core",
+                "Diagnostics for atomic-core.",
+                "/core db [slow|main|reset] [page]",
+                "atomic-core.core",
+                false,
+                1
+        );
+    }
+
+
+    /**
+     * Executes this command.
+     *
+     * @param sender Command sender.
+     * @param label  The exact command label typed by the user.
+     * @param args   Command arguments.
+     * @throws CommandException if a generic error occurs.
+     */
+    @Override
+    public void run (CommandSender sender, String label, String[] args)
+            throws CommandException {
+
+        switch (args[0].toLowerCase()) {
+            case "db":
+            case "database":
+                database(sender, args);
+                break;
+            default:
+                throw new CommandException("Unknown option '" + args[0] + "'.");
+        }
+
+    }
+
+
+    /**
+     * Shows database diagnostics.
+     *
+     * @param sender Command sender.
+     * @param args   Command arguments.
+     */
+    private void database (CommandSender sender, String[] args) throws CommandException {
+
+        QueryMetrics metrics = Main.getInstance().getQueryMetrics();
+        String option = (args.length >= 2) ? args[1].toLowerCase() : "";
+
+        switch (option) {
+            case "":
+                showQueries(sender, metrics);
+                break;
+            case "slow":
+                showSlowQueries(sender, metrics, getPage(args));
+                break;
+            case "main":
+                showMainThreadCalls(sender, metrics, getPage(args));
+                break;
+            case "reset":
+                metrics.reset();
+                sender.sendMessage("Query metrics have been reset.");
+                break;
+            default:
+                throw new CommandException(Reason.INVALID_USAGE, getUsage());
+        }
+
+    }
+
+
+    /**
+     * Outputs per operation timings, and the state of
+     * the pool, executor and circuit breaker.
+     */
+    private void showQueries (CommandSender sender, QueryMetrics metrics) {
+
+        StorageBackend storage = Main.getInstance().getStorage();
+
+        sender.sendMessage(String.format(
+                "%sDatabase %s(%s, %d queries, %d errors, %d slow, %s main thread)",
+                ChatColor.GREEN,
+                ChatColor.GRAY,
+                storage.getName(),
+                metrics.getQueries(),
+                metrics.getErrors(),
+                metrics.getSlowQueries(),
+                (metrics.getMainThreadCalls() > 0 ? ChatColor.RED : ChatColor.GRAY) + ""
+                        + metrics.getMainThreadCalls() + ChatColor.GRAY
+        ));
+
+        for (QueryStats query : metrics.getAll()) {
+
+            if (query.getTime().getCount() == 0) continue;
+
+            sender.sendMessage(String.format(
+                    "%s %s[%d calls, %d errors] %smean %.2fms, p99 %.2fms, max %.2fms",
+                    query.getName(),
+                    ChatColor.GRAY,
+                    query.getTime().getCount(),
+                    query.getErrors(),
+                    ChatColor.RESET,
+                    query.getTime().getMean() / 1e6,
+                    query.getTime().getPercentile(99) / 1e6,
+                    query.getTime().getMax() / 1e6
+            ));
+
+        }
+
+        ConnectionPool pool = Main.getInstance().getConnectionPool();
+
+        if (pool != null) {
+            sender.sendMessage(String.format(
+                    "Pool %s[%d/%d active, %d idle, %d waiting, %d timeouts]",
+                    ChatColor.GRAY,
+                    pool.getActive(),
+                    pool.getSize(),
+                    pool.getIdle(),
+                    pool.getWaiting(),
+                    pool.getTimeouts()
+            ));
+        }
+
+        DatabaseExecutor executor = Main.getInstance().getDatabaseExecutor();
+
+        sender.sendMessage(String.format(
+                "Executor %s[%d queued, %d rejected, p99 %.2fms]",
+                ChatColor.GRAY,
+                executor.getQueueDepth(),
+                executor.getRejected(),
+                executor.getP99RunMillis()
+        ));
+
+        if (storage instanceof ResilientStorageBackend) {
+
+            ResilientStorageBackend resilient = (ResilientStorageBackend) storage;
+            CircuitBreaker.State state = resilient.getBreaker().getState();
+
+            sender.sendMessage(String.format(
+                    "Breaker %s%s %s[%d trips, %d journalled writes]",
+                    (state == CircuitBreaker.State.CLOSED) ? ChatColor.GREEN : ChatColor.RED,
+                    state.name().toLowerCase(),
+                    ChatColor.GRAY,
+                    resilient.getBreaker().getTrips(),
+                    resilient.getJournal().size()
+            ));
+
+        }
+
+    }
+
+
+    /**
+     * Outputs the most recent slow queries.
+     */
+    private void showSlowQueries (CommandSender sender, QueryMetrics metrics, int page) {
+
+        new PaginatedResult<String>("Slow queries") {
+
+            @Override
+            public String format (String entry) {
+                return entry;
+            }
+
+        }.display(sender, metrics.getSlowLog(), page);
+
+    }
+
+
+    /**
+     * Outputs the call sites of database calls made on
+     * the main thread.
+     */
+    private void showMainThreadCalls (CommandSender sender, QueryMetrics metrics, int page) {
+
+        new PaginatedResult<Map.Entry<String, Long>>("Main thread database calls") {
+
+            @Override
+            public String format (Map.Entry<String, Long> site) {
+                return ChatColor.RED + "" + site.getValue() + "x " + ChatColor.RESET + site.getKey();
+            }
+
+        }.display(sender, metrics.getMainThreadSites().entrySet(), page);
+
+    }
+
+
+    private static int getPage (String[] args) throws CommandException {
+
+        if (args.length < 3)
+            return 0;
+
+        try {
+            return Integer.parseInt(args[2]) - 1;
+        } catch (NumberFormatException e) {
+            throw new CommandException("Please enter a valid number.");
+        }
+
+    }
+
+}
@@ -4,6 +4,11 @@ import com.google.gson.stream.MalformedJsonException;
 import net.atomichive.core.Main;
 import net.atomichive.core.entity.ActiveEntity;
 import net.atomichive.core.entity.CustomEntity;
+import net.atomichive.core.entity.EntityClock;
+import net.atomichive.core.entity.EntityManager;
+import net.atomichive.core.entity.PopulationGovernor;
+import net.atomichive.core.entity.abilities.AbilityMetrics;
+import net.atomichive.core.entity.abilities.AbilityStats;
 import net.atomichive.core.exception.CommandException;
 import net.atomichive.core.exception.CustomObjectException;
 import net.atomichive.core.exception.Reason;
@@ -14,6 +19,7 @@ import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,7 +32,7 @@ public class CommandEntity extends BaseCommand {
         super(
                 "entity",
                 "Used to manage custom entities.",
-                "/entity [reload|list|spawn]",
+                "/entity [reload|list|spawn|stats]",
                 "atomic-core.entity",
                 false,
                 1
@@ -65,6 +71,9 @@ public class CommandEntity extends BaseCommand {
             case "d":
                 listActiveEntities(sender);
                 break;
+            case "stats":
+                showStats(sender, args);
+                break;
             default:
                 throw new CommandException("Unknown option '" + args[0] + "'.");
         }
@@ -128,7 +137,7 @@ public class CommandEntity extends BaseCommand {
         }
 
         // Get all warps
-        List<CustomEntity> entities = Main.getInstance().getEntityManager().getCustomEntities();
+        Collection<CustomEntity> entities = Main.getInstance().getEntityManager().getCustomEntities();
 
         // Create a new paginated result
         new PaginatedResult<CustomEntity>("Custom entities") {
@@ -208,8 +217,10 @@ public class CommandEntity extends BaseCommand {
 
 
         // Attempt to spawn entity
+        int spawned;
+
         try {
-            Main.getInstance().getEntityManager()
+            spawned = Main.getInstance().getEntityManager()
                     .spawnEntity(location, entity, count, player);
         } catch (CustomObjectException e) {
             throw new CommandException(
@@ -218,7 +229,12 @@ public class CommandEntity extends BaseCommand {
             );
         }
 
-        player.sendMessage("Spawned " + ChatColor.GREEN + count + ChatColor.RESET + " entities.");
+        String out = "Spawned " + ChatColor.GREEN + spawned + ChatColor.RESET + " entities.";
+
+        if (spawned < count)
+            out += ChatColor.YELLOW + " " + (count - spawned) + " denied by population caps.";
+
+        player.sendMessage(out);
 
     }
 
@@ -230,7 +246,38 @@ public class CommandEntity extends BaseCommand {
      */
     private void listActiveEntities (CommandSender sender) {
 
-        List<ActiveEntity> entities = Main.getInstance().getEntityManager().getActiveEntities();
+        EntityManager manager = Main.getInstance().getEntityManager();
+        Collection<ActiveEntity> entities = manager.getActiveEntities();
+
+        sender.sendMessage(String.format(
+                "Active entities: %s live, %s reaped.",
+                ChatColor.GREEN + "" + entities.size() + ChatColor.RESET,
+                ChatColor.YELLOW + "" + manager.getReapedCount() + ChatColor.RESET
+        ));
+
+        PopulationGovernor governor = manager.getGovernor();
+
+        sender.sendMessage(String.format(
+                "Population: %s spawned, %s denied (global %d, type %d, chunk %d, owner %d).",
+                ChatColor.GREEN + "" + governor.getSpawned() + ChatColor.RESET,
+                ChatColor.YELLOW + "" + governor.getTotalDenied() + ChatColor.RESET,
+                governor.getDenied(PopulationGovernor.Cap.GLOBAL),
+                governor.getDenied(PopulationGovernor.Cap.TYPE),
+                governor.getDenied(PopulationGovernor.Cap.CHUNK),
+                governor.getDenied(PopulationGovernor.Cap.OWNER)
+        ));
+
+        EntityClock clock = Main.getInstance().getEntityClock();
+
+        sender.sendMessage(String.format(
+                "Entity clock: %s abilities last cycle in %sms, %s in backlog (budget %sms/tick, %d skipped, %d dropped).",
+                ChatColor.GREEN + "" + clock.getLastCycleAbilities() + ChatColor.RESET,
+                ChatColor.GREEN + String.format("%.2f", clock.getLastCycleNanos() / 1e6) + ChatColor.RESET,
+                ChatColor.YELLOW + "" + clock.getBacklog() + ChatColor.RESET,
+                String.format("%.2f", clock.getBudget() / 1e6),
+                clock.getSkipped(),
+                clock.getDropped()
+        ));
 
         if (entities.isEmpty()) {
             sender.sendMessage("There are currently no active entities!");
@@ -243,4 +290,71 @@ public class CommandEntity extends BaseCommand {
     }
 
 
+    /**
+     * Outputs ability execution metrics, grouped by either
+     * ability base or custom entity.
+     *
+     * @param sender Command sender.
+     * @param args   Any command arguments.
+     */
+    private void showStats (CommandSender sender, String[] args) throws CommandException {
+
+        AbilityMetrics metrics = Main.getInstance().getEntityManager().getAbilityMetrics();
+
+        // Ensure metrics are being collected
+        if (!metrics.isEnabled()) {
+            throw new CommandException("Ability metrics are disabled. Enable ability_metrics in config.yml.");
+        }
+
+        String group = (args.length >= 2) ? args[1].toLowerCase() : "base";
+        int page = 0;
+
+        if (group.equals("reset")) {
+            metrics.reset();
+            sender.sendMessage("Ability metrics have been reset.");
+            return;
+        }
+
+        if (!group.equals("base") && !group.equals("entity")) {
+            throw new CommandException(
+                    Reason.INVALID_USAGE,
+                    "/entity stats [base|entity|reset] [page]"
+            );
+        }
+
+        if (args.length >= 3) {
+            try {
+                page = Integer.parseInt(args[2]) - 1;
+            } catch (NumberFormatException e) {
+                throw new CommandException("Please enter a valid number.");
+            }
+        }
+
+        List<AbilityStats> stats = group.equals("base") ? metrics.getByBase() : metrics.getByEntity();
+
+        new PaginatedResult<AbilityStats>("Ability stats by " + group) {
+
+            @Override
+            public String format (AbilityStats ability) {
+
+                long runs = ability.getExecutions();
+
+                return String.format(
+                        "%s %s[%d runs, %.1f targets, %s fails] %stotal %.2fms, p99 %.3fms",
+                        ability.getName(),
+                        ChatColor.GRAY,
+                        runs,
+                        (runs == 0) ? 0.0 : (double) ability.getTargets() / runs,
+                        (ability.getFailures() > 0 ? ChatColor.RED : ChatColor.GRAY) + "" + ability.getFailures() + ChatColor.GRAY,
+                        ChatColor.RESET,
+                        ability.getTime().getSum() / 1e6,
+                        ability.getTime().getPercentile(99) / 1e6
+                );
+
+            }
+
+        }.display(sender, stats, page);
+
+    }
+
 }
@@ -2,8 +2,11 @@ package net.atomichive.core.command;
 
 import net.atomichive.core.Main;
 import net.atomichive.core.exception.CommandException;
+import net.atomichive.core.exception.Reason;
 import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.util.CommandUtil;
 import net.atomichive.core.util.Util;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -18,9 +21,9 @@ public class CommandExperience extends BaseCommand {
         super (
                 "experience",
                 "Gives experience.",
-                "/xp <experience>",
+                "/xp <experience> [player|*]",
                 "atomic-core.experience",
-                true,
+                false,
                 1
         );
     }
@@ -38,9 +41,6 @@ public class CommandExperience extends BaseCommand {
     public void run (CommandSender sender, String label, String[] args)
             throws CommandException {
 
-        Player player = (Player) sender;
-        AtomicPlayer atomicPlayer = Main.getInstance().getPlayerManager().get(player);
-
         int xp;
 
         // Ensure entered value can be parsed as an int
@@ -49,7 +49,38 @@ public class CommandExperience extends BaseCommand {
 
         xp = Integer.parseInt(args[0]);
 
-        atomicPlayer.giveExperience(xp);
+        if (args.length == 1) {
+            giveExperience(sender, xp);
+        } else if (args[1].equals("*")) {
+            giveExperienceToAll(sender, xp);
+        } else {
+            giveExperience(sender, xp, args[1]);
+        }
+
+    }
+
+
+    /**
+     * Gives experience to the sender.
+     *
+     * @param sender Command sender.
+     * @param xp     Experience to give.
+     * @throws CommandException if the sender is not a player.
+     */
+    private void giveExperience (CommandSender sender, int xp) throws CommandException {
+
+        // Ensure sender is a player
+        if (!(sender instanceof Player)) {
+            throw new CommandException(
+                    Reason.INVALID_SENDER,
+                    "Only players can receive experience."
+            );
+        }
+
+        Player player = (Player) sender;
+        AtomicPlayer atomicPlayer = getAtomicPlayer(player);
+
+        atomicPlayer.giveExperience(xp, player);
 
         player.sendMessage(String.format(
                 "Received %s.",
@@ -59,4 +90,54 @@ public class CommandExperience extends BaseCommand {
     }
 
 
+    /**
+     * Gives experience to another player.
+     *
+     * @param sender Command sender.
+     * @param xp     Experience to give.
+     * @param arg    Target player as an argument.
+     * @throws CommandException if the target player cannot
+     * be found.
+     */
+    private void giveExperience (CommandSender sender, int xp, String arg) throws CommandException {
+
+        Player target = CommandUtil.parseTarget(arg);
+        AtomicPlayer atomicPlayer = getAtomicPlayer(target);
+
+        atomicPlayer.giveExperience(xp, target);
+
+        sender.sendMessage(String.format(
+                "Gave %s to %s.",
+                ChatColor.GREEN + String.valueOf(xp) + "xp" + ChatColor.RESET,
+                ChatColor.YELLOW + target.getDisplayName() + ChatColor.RESET
+        ));
+
+        target.sendMessage(String.format(
+                "Received %s.",
+                ChatColor.GREEN + String.valueOf(xp) + "xp" + ChatColor.RESET
+        ));
+
+    }
+
+
+    /**
+     * Gives experience to every online player in one batch.
+     *
+     * @param sender Command sender.
+     * @param xp     Experience to give each player.
+     */
+    private void giveExperienceToAll (CommandSender sender, int xp) {
+
+        int rewarded = Main.getInstance()
+                .getPlayerManager()
+                .giveExperience(Bukkit.getOnlinePlayers(), xp);
+
+        sender.sendMessage(String.format(
+                "Gave %s to %s players.",
+                ChatColor.GREEN + String.valueOf(xp) + "xp" + ChatColor.RESET,
+                ChatColor.YELLOW + String.valueOf(rewarded) + ChatColor.RESET
+        ));
+
+    }
+
 }
@@ -0,0 +1,90 @@
+package net.atomichive.core.command;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.exception.CommandException;
+import net.atomichive.core.exception.InvalidNumberException;
+import net.atomichive.core.player.Leaderboard;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Lists a page of the level leaderboard, and the
+ * player's own rank.
+ */
+public class CommandLeaderboard extends BaseCommand {
+
+    private static final int PAGE_SIZE = 9;
+
+
+    public CommandLeaderboard () {
+        super(
+                "leaderboard",
+                "Lists the players with the highest levels.",
+                "/top [page]",
+                "atomic-core.leaderboard",
+                true,
+                0
+        );
+    }
+
+
+    /**
+     * Executes this command.
+     *
+     * @param sender Command sender.
+     * @param label  The exact command label typed by the user.
+     * @param args   Command arguments.
+     * @throws CommandException if a generic error occurs.
+     */
+    @Override
+    public void run (CommandSender sender, String label, String[] args)
+            throws CommandException {
+
+        Player player = (Player) sender;
+        int page = 0;
+
+        if (args.length >= 1) {
+            try {
+                page = Integer.parseInt(args[0]) - 1;
+            } catch (NumberFormatException e) {
+                throw new InvalidNumberException();
+            }
+        }
+
+        Leaderboard leaderboard = Main.getInstance().getPlayerManager().getLeaderboard();
+        int pages = Math.max(1, (leaderboard.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        page = Math.max(0, Math.min(page, pages - 1));
+
+        player.sendMessage(String.format(
+                "%sLeaderboard %s(Page %d/%d)",
+                ChatColor.GREEN,
+                ChatColor.GRAY,
+                page + 1,
+                pages
+        ));
+
+        // Only the requested page is read from the index
+        int rank = page * PAGE_SIZE;
+
+        for (Leaderboard.Entry entry : leaderboard.getTop(rank, PAGE_SIZE)) {
+            player.sendMessage(String.format(
+                    "%s%d. %s%s %s[level %d, %d xp]",
+                    ChatColor.GRAY,
+                    ++rank,
+                    entry.getIdentifier().equals(player.getUniqueId()) ? ChatColor.YELLOW : ChatColor.RESET,
+                    entry.getName(),
+                    ChatColor.GRAY,
+                    entry.getLevel(),
+                    entry.getExperience()
+            ));
+        }
+
+        player.sendMessage("Your rank: " + ChatColor.GREEN + leaderboard.getRank(player.getUniqueId()));
+
+        if (!leaderboard.isSeeded())
+            player.sendMessage(ChatColor.GRAY + "Offline players are still being loaded.");
+
+    }
+
+}
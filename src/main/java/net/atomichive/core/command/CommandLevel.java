@@ -1,6 +1,5 @@
 package net.atomichive.core.command;
 
-import net.atomichive.core.Main;
 import net.atomichive.core.exception.CommandException;
 import net.atomichive.core.exception.InvalidNumberException;
 import net.atomichive.core.exception.UnknownPlayerException;
@@ -91,14 +90,14 @@ public class CommandLevel extends BaseCommand {
      * @param player Player whose experience should be set.
      * @param level  Desired level as float.
      */
-    private void setExperience (Player player, float level) {
+    private void setExperience (Player player, float level) throws UnknownPlayerException {
 
         // Split the whole part and the quotient
         // e.g. 6.5 becomes 6 and 0.5
         int wholePart = (int) level;
         float quotient = level - wholePart;
 
-        AtomicPlayer atomicPlayer = Main.getInstance().getPlayerManager().get(player);
+        AtomicPlayer atomicPlayer = getAtomicPlayer(player);
         atomicPlayer.setLevel(wholePart);
         atomicPlayer.setExperienceFloat(quotient);
         atomicPlayer.updateExperience();
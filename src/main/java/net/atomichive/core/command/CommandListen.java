@@ -41,7 +41,7 @@ public class CommandListen extends BaseCommand {
             throws CommandException {
 
         // Get player
-        AtomicPlayer player = Main.getInstance().getPlayerManager().get((Player) sender);
+        AtomicPlayer player = getAtomicPlayer((Player) sender);
         int verbosity;
 
         // Print verbosity levels
@@ -69,6 +69,7 @@ public class CommandListen extends BaseCommand {
 
         // Update verbosity
         player.setVerbosity((short) verbosity);
+        Main.getInstance().getPlayerManager().getCommandSpies().subscribe((Player) sender, (short) verbosity);
         String level = null;
 
         // Handle verbosity
@@ -3,6 +3,7 @@ package net.atomichive.core.command;
 import net.atomichive.core.Main;
 import net.atomichive.core.exception.CommandException;
 import net.atomichive.core.exception.UnknownPlayerException;
+import net.atomichive.core.player.AtomicPlayer;
 import net.atomichive.core.util.Util;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -73,10 +74,10 @@ public class CommandMessage extends BaseCommand {
             name = player.getDisplayName();
 
             // Update last sender
-            Main.getInstance()
-                    .getPlayerManager()
-                    .get(target)
-                    .setLastMessageFrom(player);
+            AtomicPlayer atomicTarget = Main.getInstance().getPlayerManager().get(target);
+
+            if (atomicTarget != null)
+                atomicTarget.setLastMessageFrom(player);
         }
 
 
@@ -1,6 +1,5 @@
 package net.atomichive.core.command;
 
-import net.atomichive.core.Main;
 import net.atomichive.core.exception.CommandException;
 import net.atomichive.core.exception.Reason;
 import net.atomichive.core.player.AtomicPlayer;
@@ -42,7 +41,7 @@ public class CommandNickname extends BaseCommand {
 
         // Get player
         Player player = (Player) sender;
-        AtomicPlayer atomicPlayer = Main.getInstance().getPlayerManager().get(player);
+        AtomicPlayer atomicPlayer = getAtomicPlayer(player);
 
 
         // Reset display name
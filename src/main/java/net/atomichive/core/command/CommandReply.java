@@ -1,6 +1,5 @@
 package net.atomichive.core.command;
 
-import net.atomichive.core.Main;
 import net.atomichive.core.exception.CommandException;
 import net.atomichive.core.exception.Reason;
 import net.atomichive.core.util.Util;
@@ -42,10 +41,7 @@ public class CommandReply extends BaseCommand {
         Player player = (Player) sender;
 
         // Get target
-        Player target = Main.getInstance()
-                .getPlayerManager()
-                .get(player)
-                .getLastMessageFrom();
+        Player target = getAtomicPlayer(player).getLastMessageFrom();
 
         // Ensure target exists
         if (target == null) {
@@ -60,7 +60,7 @@ public class CommandTeleportAsk extends BaseCommand {
 
 
         // Retrieve atomic player
-        AtomicPlayer atomicTarget = Main.getInstance().getPlayerManager().get(target);
+        AtomicPlayer atomicTarget = getAtomicPlayer(target);
         ExpiringValue<Player> value = atomicTarget.getLastTeleportRequest();
 
         // Ensure request is not already pending
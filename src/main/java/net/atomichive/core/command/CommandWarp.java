@@ -8,7 +8,6 @@ import net.atomichive.core.exception.UnknownWorldException;
 import net.atomichive.core.util.PaginatedResult;
 import net.atomichive.core.util.Util;
 import net.atomichive.core.warp.Warp;
-import net.atomichive.core.warp.WarpDAO;
 import net.atomichive.core.warp.WarpManager;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -16,6 +15,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Designate a warp destination, or warp somewhere.
@@ -168,11 +168,14 @@ public class CommandWarp extends BaseCommand {
         Warp warp = new Warp(name, location);
         warp.setMessage(message);
 
-        // Add to managers and DB
-        WarpDAO.insert(warp);
-        manager.add(warp);
-
-        player.sendMessage("Created warp " + ChatColor.GREEN + warp.toString() + ChatColor.RESET + ".");
+        // Add to managers, and save in the background
+        manager.add(warp).whenComplete((ignored, e) -> {
+            if (e == null) {
+                player.sendMessage("Created warp " + ChatColor.GREEN + warp.toString() + ChatColor.RESET + ".");
+            } else {
+                player.sendMessage(ChatColor.RED + "Could not save warp '" + name + "'. Please try again.");
+            }
+        });
 
     }
 
@@ -194,16 +197,22 @@ public class CommandWarp extends BaseCommand {
             );
         }
 
-        Warp warp;
+        CompletableFuture<Warp> deleted;
 
         // Attempt to delete warp
         try {
-            warp = Main.getInstance().getWarpManager().delete(args[1]);
+            deleted = Main.getInstance().getWarpManager().delete(args[1]);
         } catch (UnknownWarpException e) {
             throw new CommandException(e.getMessage());
         }
 
-        sender.sendMessage("Deleted warp " + ChatColor.RED + warp.toString() + ChatColor.RESET + ".");
+        deleted.whenComplete((warp, e) -> {
+            if (e == null) {
+                sender.sendMessage("Deleted warp " + ChatColor.RED + warp.toString() + ChatColor.RESET + ".");
+            } else {
+                sender.sendMessage(ChatColor.RED + "Could not delete warp '" + args[1] + "'. Please try again.");
+            }
+        });
 
     }
 
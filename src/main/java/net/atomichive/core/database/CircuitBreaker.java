@@ -0,0 +1,118 @@
+package net.atomichive.core.database;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit Breaker
+ * Stops calls to an unhealthy service, so callers fail fast
+ * instead of each waiting on it to time out.
+ * After enough consecutive failures the breaker opens, and
+ * rejects calls until the cooldown has passed. A single trial
+ * call is then let through: if it succeeds the breaker closes,
+ * otherwise it opens again for another cooldown.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,    // Calls allowed
+        OPEN,      // Calls rejected until the cooldown passes
+        HALF_OPEN  // One trial call in progress
+    }
+
+    private final int threshold;
+    private final long cooldown; // Nanoseconds
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int failures = 0;
+    private long openedAt = 0;
+    private long trips = 0;
+
+
+    /**
+     * Circuit Breaker
+     *
+     * @param threshold Consecutive failures before opening.
+     * @param cooldown  Milliseconds to stay open.
+     */
+    public CircuitBreaker (int threshold, long cooldown) {
+        this(threshold, cooldown, System::nanoTime);
+    }
+
+
+    CircuitBreaker (int threshold, long cooldown, LongSupplier clock) {
+        this.threshold = Math.max(1, threshold);
+        this.cooldown = cooldown * 1000000L;
+        this.clock = clock;
+    }
+
+
+    /**
+     * Determines whether a call may go ahead. Every allowed
+     * call must be followed by success() or failure().
+     *
+     * @return Whether the call is allowed.
+     */
+    public synchronized boolean allow () {
+
+        switch (state) {
+
+            case CLOSED:
+                return true;
+
+            case OPEN:
+                if (clock.getAsLong() - openedAt < cooldown)
+                    return false;
+                state = State.HALF_OPEN;
+                return true;
+
+            default:
+                // Only one trial at a time
+                return false;
+
+        }
+
+    }
+
+
+    /**
+     * Records a successful call, closing the breaker.
+     */
+    public synchronized void success () {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+
+    /**
+     * Records a failed call, opening the breaker if there
+     * have been too many in a row, or the trial failed.
+     */
+    public synchronized void failure () {
+
+        failures++;
+
+        // Late failures from calls made before opening
+        // don't extend the cooldown
+        if (state != State.OPEN && (state == State.HALF_OPEN || failures >= threshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            trips++;
+        }
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public synchronized State getState () {
+        return state;
+    }
+
+    public synchronized long getTrips () {
+        return trips;
+    }
+
+}
@@ -0,0 +1,381 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.util.Histogram;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection Pool
+ * A small, fixed size pool of JDBC connections, so database
+ * work can safely happen on more than one thread. Connections
+ * are borrowed as leases, which return the connection to the
+ * pool when closed (use try-with-resources).
+ * Connections which have sat idle are validated before being
+ * handed out, and replaced if broken, so the pool recovers
+ * from database restarts on its own.
+ */
+public class ConnectionPool implements ConnectionPoolMXBean {
+
+    private static final int VALIDATION_TIMEOUT = 2;       // Seconds
+    private static final long VALIDATE_AFTER = 5000000000L; // Nanoseconds idle before validating
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int size;
+    private final long timeout; // Milliseconds to wait for a connection
+
+    private final Semaphore permits;
+    private final BlockingDeque<Idle> idle = new LinkedBlockingDeque<>();
+    private volatile boolean closed = false;
+
+    // Pool metrics
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong broken = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final Histogram waitTime = new Histogram(); // Nanoseconds per borrow
+
+
+    /**
+     * Connection Pool
+     *
+     * @param url      JDBC url.
+     * @param username Database username.
+     * @param password Database password.
+     * @param size     Maximum number of connections.
+     * @param timeout  Maximum milliseconds to wait for a connection.
+     */
+    public ConnectionPool (String url, String username, String password, int size, long timeout) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.size = Math.max(1, size);
+        this.timeout = timeout;
+        this.permits = new Semaphore(this.size, true);
+    }
+
+
+    /**
+     * Borrows a connection from the pool, opening a new
+     * one if no idle connection is available.
+     *
+     * @return Connection lease. Must be closed.
+     * @throws SQLException if no connection could be obtained in time.
+     */
+    public Lease borrow () throws SQLException {
+
+        if (closed)
+            throw new SQLException("Connection pool is closed.", "08003");
+
+        long start = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Timed out waiting for a database connection.",
+                        "08001"
+                );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(
+                    "Interrupted waiting for a database connection.",
+                    "08000",
+                    e
+            );
+        }
+
+        try {
+
+            Connection connection = take();
+
+            waitTime.record(System.nanoTime() - start);
+            active.incrementAndGet();
+
+            return new Lease(connection);
+
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+    }
+
+
+    /**
+     * Borrows a connection for a unit of work, returning
+     * it afterwards. Connections which fail with a
+     * connection error are discarded rather than returned.
+     *
+     * @param work Work to run with the connection.
+     * @return Result of the work.
+     * @throws SQLException if the work failed, or no connection
+     *                      could be obtained in time.
+     */
+    public <T> T execute (Work<T> work) throws SQLException {
+
+        try (Lease lease = borrow()) {
+            try {
+                return work.run(lease);
+            } catch (SQLException e) {
+                throw lease.check(e);
+            }
+        }
+
+    }
+
+
+    /**
+     * Takes a working connection, validating idle
+     * connections or opening a new one.
+     */
+    private Connection take () throws SQLException {
+
+        Idle entry;
+
+        while ((entry = idle.pollFirst()) != null) {
+
+            // Recently used connections are assumed to be fine
+            if (System.nanoTime() - entry.since < VALIDATE_AFTER)
+                return entry.connection;
+
+            if (isValid(entry.connection))
+                return entry.connection;
+
+            broken.incrementAndGet();
+            closeQuietly(entry.connection);
+
+        }
+
+        Connection connection = DriverManager.getConnection(url, username, password);
+        created.incrementAndGet();
+
+        return connection;
+
+    }
+
+
+    /**
+     * Returns a connection to the pool, unless it
+     * is broken or the pool has been closed.
+     */
+    private void release (Connection connection, boolean invalid) {
+
+        active.decrementAndGet();
+
+        try {
+
+            if (closed || invalid || connection.isClosed()) {
+                if (invalid) broken.incrementAndGet();
+                closeQuietly(connection);
+                return;
+            }
+
+            if (!connection.getAutoCommit())
+                connection.setAutoCommit(true);
+
+            // Most recently used first, so spare connections go stale
+            // and are validated rather than all being kept warm
+            idle.offerFirst(new Idle(connection));
+
+        } catch (SQLException e) {
+            broken.incrementAndGet();
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+
+    }
+
+
+    /**
+     * Closes the pool, and all idle connections. Leased
+     * connections are closed when returned.
+     */
+    public void close () {
+
+        closed = true;
+
+        Idle entry;
+        while ((entry = idle.pollFirst()) != null)
+            closeQuietly(entry.connection);
+
+    }
+
+
+    private static boolean isValid (Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+
+    private static void closeQuietly (Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+
+    /**
+     * Determines whether an exception means the connection
+     * itself is unusable (SQL state class 08).
+     *
+     * @param e Exception thrown while using a connection.
+     * @return Whether the connection should be discarded.
+     */
+    static boolean isConnectionError (SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    @Override
+    public int getSize () {
+        return size;
+    }
+
+    @Override
+    public int getActive () {
+        return active.get();
+    }
+
+    @Override
+    public int getIdle () {
+        return idle.size();
+    }
+
+    @Override
+    public int getWaiting () {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public long getCreated () {
+        return created.get();
+    }
+
+    @Override
+    public long getBroken () {
+        return broken.get();
+    }
+
+    @Override
+    public long getTimeouts () {
+        return timeouts.get();
+    }
+
+    @Override
+    public double getMeanWaitMillis () {
+        return waitTime.getMean() / 1e6;
+    }
+
+    @Override
+    public double getMaxWaitMillis () {
+        return waitTime.getMax() / 1e6;
+    }
+
+    public Histogram getWaitTime () {
+        return waitTime;
+    }
+
+
+    /**
+     * A borrowed connection. Closing the lease returns
+     * the connection to the pool.
+     */
+    public class Lease implements AutoCloseable {
+
+        private final Connection connection;
+        private boolean invalid = false;
+        private boolean released = false;
+
+        private Lease (Connection connection) {
+            this.connection = connection;
+        }
+
+
+        /**
+         * Prepares a statement on the leased connection.
+         * Statements belong to this lease, and should be
+         * closed before it (use try-with-resources).
+         *
+         * @param sql SQL to prepare.
+         * @return Prepared statement.
+         */
+        public PreparedStatement prepare (String sql) throws SQLException {
+            return connection.prepareStatement(sql);
+        }
+
+
+        /**
+         * Marks the connection as broken if an exception
+         * indicates it is, so it isn't returned to the pool.
+         *
+         * @param e Exception thrown while using the connection.
+         * @return The same exception, for rethrowing.
+         */
+        public SQLException check (SQLException e) {
+            if (isConnectionError(e))
+                invalid = true;
+            return e;
+        }
+
+
+        public Connection getConnection () {
+            return connection;
+        }
+
+
+        @Override
+        public void close () {
+            if (released) return;
+            released = true;
+            release(connection, invalid);
+        }
+
+    }
+
+
+    /**
+     * A unit of database work.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run (Lease lease) throws SQLException;
+    }
+
+
+    /**
+     * An idle connection, and when it was returned.
+     */
+    private static class Idle {
+
+        private final Connection connection;
+        private final long since = System.nanoTime();
+
+        Idle (Connection connection) {
+            this.connection = connection;
+        }
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package net.atomichive.core.database;
+
+/**
+ * JMX view of the database connection pool.
+ */
+public interface ConnectionPoolMXBean {
+
+    int getSize ();
+
+    int getActive ();
+
+    int getIdle ();
+
+    int getWaiting ();
+
+    long getCreated ();
+
+    long getBroken ();
+
+    long getTimeouts ();
+
+    double getMeanWaitMillis ();
+
+    double getMaxWaitMillis ();
+
+}
@@ -0,0 +1,315 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.util.Histogram;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Database Executor
+ * Runs database work off the main thread. Tasks are queued
+ * on a bounded queue (tasks beyond it are rejected rather than
+ * piling up), and return futures. Anything which needs to touch
+ * Bukkit afterwards should continue on the main thread executor,
+ * whose completions are drained in batches once per tick:
+ *
+ *     executor.submit(task).thenAcceptAsync(result -> ..., executor.mainThread());
+ */
+public class DatabaseExecutor implements DatabaseExecutorMXBean {
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final Semaphore capacity; // Bounds queued and running tasks
+
+    // Continuations waiting to run on the main thread
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private final int completionsPerTick;
+    private final Executor mainThread = this::complete;
+
+    // Executor metrics
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Histogram queueTime = new Histogram(); // Nanoseconds before a task starts
+    private final Histogram runTime = new Histogram();   // Nanoseconds to run a task
+
+
+    /**
+     * Database Executor
+     *
+     * @param threads            Number of platform threads.
+     * @param queueSize          Maximum number of waiting tasks.
+     * @param useVirtualThreads  Whether to use virtual threads, if
+     *                           the runtime supports them.
+     * @param completionsPerTick Maximum main thread completions per tick.
+     */
+    public DatabaseExecutor (int threads, int queueSize, boolean useVirtualThreads, int completionsPerTick) {
+
+        threads = Math.max(1, threads);
+        queueSize = Math.max(1, queueSize);
+
+        ExecutorService virtualExecutor = useVirtualThreads ? createVirtualExecutor() : null;
+
+        this.virtual = virtualExecutor != null;
+        this.capacity = new Semaphore(queueSize + threads);
+        this.completionsPerTick = Math.max(1, completionsPerTick);
+
+        if (virtual) {
+            this.executor = virtualExecutor;
+        } else {
+            this.executor = new ThreadPoolExecutor(
+                    threads, threads,
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    new NamedThreadFactory()
+            );
+        }
+
+    }
+
+
+    /**
+     * Creates a virtual thread per task executor, if the
+     * runtime supports them (Java 21+).
+     *
+     * @return Executor, or null if unsupported.
+     */
+    private static ExecutorService createVirtualExecutor () {
+        try {
+            return (ExecutorService) java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Queues a task to run off the main thread.
+     *
+     * @param task Task to run.
+     * @return Future result. Completes exceptionally with a
+     * RejectedExecutionException if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit (Callable<T> task) {
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        if (!capacity.tryAcquire()) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Database queue is full."));
+            return future;
+        }
+
+        long queuedAt = System.nanoTime();
+        queued.incrementAndGet();
+        submitted.incrementAndGet();
+
+        try {
+            executor.execute(() -> run(task, future, queuedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            capacity.release();
+            rejected.incrementAndGet();
+            future.completeExceptionally(e);
+        }
+
+        return future;
+
+    }
+
+
+    /**
+     * Queues a task whose result doesn't matter. Failures
+     * are logged.
+     *
+     * @param description What the task does, for logging.
+     * @param task        Task to run.
+     */
+    public void execute (String description, Callable<?> task) {
+        submit(task).whenComplete((result, e) -> {
+            if (e != null) {
+                Main.getInstance().log(Level.WARNING, String.format(
+                        "Failed to %s: %s",
+                        description,
+                        e.getMessage()
+                ));
+            }
+        });
+    }
+
+
+    private <T> void run (Callable<T> task, CompletableFuture<T> future, long queuedAt) {
+
+        long start = System.nanoTime();
+        queued.decrementAndGet();
+        queueTime.record(start - queuedAt);
+
+        try {
+            future.complete(task.call());
+        } catch (Throwable e) {
+            failed.incrementAndGet();
+            future.completeExceptionally(e);
+        } finally {
+            runTime.record(System.nanoTime() - start);
+            capacity.release();
+        }
+
+    }
+
+
+    /**
+     * Queues a continuation to run on the main thread.
+     */
+    private void complete (Runnable runnable) {
+        completions.add(runnable);
+    }
+
+
+    /**
+     * Runs a batch of queued main thread continuations.
+     * Called once per tick from the main thread.
+     */
+    public void drain () {
+
+        Runnable runnable;
+
+        for (int i = 0; i < completionsPerTick && (runnable = completions.poll()) != null; i++) {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                Main.getInstance().log(Level.SEVERE, "Database completion failed: " + e.getMessage());
+            }
+        }
+
+    }
+
+
+    /**
+     * Stops accepting tasks, and waits for queued tasks to
+     * finish. Remaining completions are then run, so only
+     * call this from the main thread.
+     *
+     * @param timeout Maximum milliseconds to wait.
+     * @return Whether all tasks finished in time.
+     */
+    public boolean shutdown (long timeout) {
+
+        executor.shutdown();
+
+        boolean finished;
+
+        try {
+            finished = executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        }
+
+        if (!finished)
+            executor.shutdownNow();
+
+        while (!completions.isEmpty())
+            drain();
+
+        return finished;
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public Executor mainThread () {
+        return mainThread;
+    }
+
+    public Histogram getQueueTime () {
+        return queueTime;
+    }
+
+    public Histogram getRunTime () {
+        return runTime;
+    }
+
+    @Override
+    public boolean isVirtual () {
+        return virtual;
+    }
+
+    @Override
+    public int getQueueDepth () {
+        return queued.get();
+    }
+
+    @Override
+    public int getPendingCompletions () {
+        return completions.size();
+    }
+
+    @Override
+    public long getSubmitted () {
+        return submitted.get();
+    }
+
+    @Override
+    public long getRejected () {
+        return rejected.get();
+    }
+
+    @Override
+    public long getFailed () {
+        return failed.get();
+    }
+
+    @Override
+    public double getMeanQueueMillis () {
+        return queueTime.getMean() / 1e6;
+    }
+
+    @Override
+    public double getMeanRunMillis () {
+        return runTime.getMean() / 1e6;
+    }
+
+    @Override
+    public double getP99RunMillis () {
+        return runTime.getPercentile(99) / 1e6;
+    }
+
+
+    /**
+     * Names database threads, and makes them daemons so a
+     * stuck query can't keep the server alive.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread (Runnable runnable) {
+            Thread thread = new Thread(runnable, "atomic-core-db-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
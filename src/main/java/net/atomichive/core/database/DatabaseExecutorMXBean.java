@@ -0,0 +1,26 @@
+package net.atomichive.core.database;
+
+/**
+ * JMX view of the database executor.
+ */
+public interface DatabaseExecutorMXBean {
+
+    boolean isVirtual ();
+
+    int getQueueDepth ();
+
+    int getPendingCompletions ();
+
+    long getSubmitted ();
+
+    long getRejected ();
+
+    long getFailed ();
+
+    double getMeanQueueMillis ();
+
+    double getMeanRunMillis ();
+
+    double getP99RunMillis ();
+
+}
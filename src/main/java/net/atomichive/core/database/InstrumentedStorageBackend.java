@@ -0,0 +1,146 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.database.QueryMetrics.Operation;
+import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.player.Leaderboard;
+import net.atomichive.core.warp.Warp;
+import org.bukkit.Bukkit;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Instrumented Storage Backend
+ * Times every call to another backend into query metrics,
+ * and notes calls made on the server main thread.
+ */
+public class InstrumentedStorageBackend implements StorageBackend {
+
+    private final StorageBackend delegate;
+    private final QueryMetrics metrics;
+
+
+    /**
+     * Instrumented Storage Backend
+     *
+     * @param delegate Backend to time.
+     * @param metrics  Metrics to record into.
+     */
+    public InstrumentedStorageBackend (StorageBackend delegate, QueryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void migrate () throws SQLException {
+        delegate.migrate();
+    }
+
+
+    @Override
+    public List<AtomicPlayer> findPlayers (UUID identifier) throws SQLException {
+        return time(Operation.FIND_PLAYER, () -> delegate.findPlayers(identifier));
+    }
+
+
+    @Override
+    public void insertPlayer (AtomicPlayer player) throws SQLException {
+        time(Operation.INSERT_PLAYER, () -> {
+            delegate.insertPlayer(player);
+            return null;
+        });
+    }
+
+
+    @Override
+    public void updatePlayers (Collection<AtomicPlayer> players) throws SQLException {
+        time(Operation.UPDATE_PLAYERS, () -> {
+            delegate.updatePlayers(players);
+            return null;
+        });
+    }
+
+
+    @Override
+    public List<Leaderboard.Entry> getRankings () throws SQLException {
+        return time(Operation.GET_RANKINGS, delegate::getRankings);
+    }
+
+
+    @Override
+    public List<Warp> getWarps () throws SQLException {
+        return time(Operation.GET_WARPS, delegate::getWarps);
+    }
+
+
+    @Override
+    public void insertWarp (Warp warp) throws SQLException {
+        time(Operation.INSERT_WARP, () -> {
+            delegate.insertWarp(warp);
+            return null;
+        });
+    }
+
+
+    @Override
+    public void deleteWarp (UUID identifier) throws SQLException {
+        time(Operation.DELETE_WARP, () -> {
+            delegate.deleteWarp(identifier);
+            return null;
+        });
+    }
+
+
+    @Override
+    public boolean isOutage (SQLException e) {
+        return delegate.isOutage(e);
+    }
+
+
+    @Override
+    public void close () {
+        delegate.close();
+    }
+
+
+    @Override
+    public String getName () {
+        return delegate.getName();
+    }
+
+
+    private <T> T time (Operation operation, Call<T> call) throws SQLException {
+
+        boolean mainThread = Bukkit.isPrimaryThread();
+        boolean failed = true;
+        long start = System.nanoTime();
+
+        try {
+            T result = call.run();
+            failed = false;
+            return result;
+        } finally {
+            metrics.record(operation, System.nanoTime() - start, failed, mainThread);
+        }
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public QueryMetrics getMetrics () {
+        return metrics;
+    }
+
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run () throws SQLException;
+    }
+
+}
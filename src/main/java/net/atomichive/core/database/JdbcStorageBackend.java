@@ -0,0 +1,344 @@
+package net.atomichive.core.database;
+
+import io.seanbailey.database.builders.DeleteBuilder;
+import io.seanbailey.database.builders.InsertBuilder;
+import io.seanbailey.database.builders.SelectBuilder;
+import io.seanbailey.database.builders.UpdateBuilder;
+import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.player.Leaderboard;
+import net.atomichive.core.warp.Warp;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC Storage Backend
+ * Shared SQL for backends reached over JDBC. Connections
+ * are borrowed from the pool for each call. Subclasses only
+ * decide how UUIDs are stored, and how the schema is made.
+ */
+public abstract class JdbcStorageBackend implements StorageBackend {
+
+    // SQL is built once, and prepared per connection
+    private static final String INSERT_PLAYER = new InsertBuilder("players").addColumns(
+            "player_id",
+            "username",
+            "display_name",
+            "level",
+            "experience",
+            "last_seen",
+            "login_count",
+            "verbosity"
+    ).toString();
+
+    private static final String UPDATE_PLAYER = new UpdateBuilder("players").addColumns(
+            "username",
+            "display_name",
+            "level",
+            "experience",
+            "last_seen",
+            "login_count",
+            "verbosity"
+    ).where("player_id = ?").toString();
+
+    private static final String FIND_PLAYER = new SelectBuilder("players")
+            .addColumn("*")
+            .where("player_id = ?")
+            .toString();
+
+    private static final String SELECT_RANKINGS = new SelectBuilder("players")
+            .addColumn("player_id")
+            .addColumn("username")
+            .addColumn("level")
+            .addColumn("experience")
+            .toString();
+
+    private static final String INSERT_WARP = new InsertBuilder("warps").addColumns(
+            "warp_id",
+            "name",
+            "message",
+            "world_id",
+            "x", "y", "z",
+            "pitch", "yaw"
+    ).toString();
+
+    private static final String DELETE_WARP = new DeleteBuilder("warps")
+            .where("warp_id = ?")
+            .toString();
+
+    private static final String SELECT_WARPS = new SelectBuilder("warps")
+            .addColumn("*")
+            .toString();
+
+    protected final ConnectionPool pool;
+
+
+    /**
+     * JDBC Storage Backend
+     *
+     * @param pool Pool to borrow connections from.
+     */
+    protected JdbcStorageBackend (ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+
+    /**
+     * Binds a UUID parameter.
+     */
+    protected abstract void setUuid (PreparedStatement statement, int index, UUID value)
+            throws SQLException;
+
+
+    /**
+     * Reads a UUID column.
+     */
+    protected abstract UUID getUuid (ResultSet rs, String column) throws SQLException;
+
+
+    @Override
+    public List<AtomicPlayer> findPlayers (UUID identifier) throws SQLException {
+
+        return pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(FIND_PLAYER)) {
+
+                setUuid(statement, 1, identifier);
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    return mapResultsToPlayers(rs);
+                }
+
+            }
+        });
+
+    }
+
+
+    @Override
+    public void insertPlayer (AtomicPlayer player) throws SQLException {
+
+        pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(INSERT_PLAYER)) {
+
+                int n = 1;
+
+                // Set values in prepared statement
+                setUuid(statement, n++, player.getIdentifier());
+                statement.setString(n++, player.getUsername());
+                statement.setString(n++, player.getDisplayName());
+                statement.setInt(n++, player.getLevel());
+                statement.setInt(n++, player.getExperience());
+                statement.setTimestamp(n++, player.getLastSeen());
+                statement.setInt(n++, player.getLoginCount());
+                statement.setShort(n, player.getVerbosity());
+
+                return statement.executeUpdate();
+
+            }
+        });
+
+    }
+
+
+    @Override
+    public void updatePlayers (Collection<AtomicPlayer> players) throws SQLException {
+
+        if (players.isEmpty()) return;
+
+        pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(UPDATE_PLAYER)) {
+
+                for (AtomicPlayer player : players) {
+                    mapPlayerToStatement(statement, player);
+                    statement.addBatch();
+                }
+
+                return statement.executeBatch();
+
+            }
+        });
+
+    }
+
+
+    @Override
+    public List<Leaderboard.Entry> getRankings () throws SQLException {
+
+        return pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(SELECT_RANKINGS);
+                 ResultSet rs = statement.executeQuery()) {
+
+                List<Leaderboard.Entry> entries = new ArrayList<>();
+
+                while (rs.next()) {
+                    entries.add(new Leaderboard.Entry(
+                            getUuid(rs, "player_id"),
+                            rs.getString("username"),
+                            rs.getInt("level"),
+                            rs.getInt("experience")
+                    ));
+                }
+
+                return entries;
+
+            }
+        });
+
+    }
+
+
+    @Override
+    public List<Warp> getWarps () throws SQLException {
+
+        return pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(SELECT_WARPS);
+                 ResultSet rs = statement.executeQuery()) {
+
+                List<Warp> warps = new ArrayList<>();
+
+                // Map results to warp objects
+                while (rs.next()) {
+
+                    Warp warp = new Warp();
+
+                    warp.setIdentifier(getUuid(rs, "warp_id"));
+                    warp.setName(rs.getString("name"));
+                    warp.setMessage(rs.getString("message"));
+                    warp.setWorld(getUuid(rs, "world_id"));
+                    warp.setX(rs.getInt("x"));
+                    warp.setY(rs.getInt("y"));
+                    warp.setZ(rs.getInt("z"));
+                    warp.setPitch(rs.getFloat("pitch"));
+                    warp.setYaw(rs.getFloat("yaw"));
+
+                    warps.add(warp);
+
+                }
+
+                return warps;
+
+            }
+        });
+
+    }
+
+
+    @Override
+    public void insertWarp (Warp warp) throws SQLException {
+
+        pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(INSERT_WARP)) {
+
+                int n = 1;
+
+                // Set values in prepared statement
+                setUuid(statement, n++, warp.getIdentifier());
+                statement.setString(n++, warp.getName());
+                statement.setString(n++, warp.getMessage());
+                setUuid(statement, n++, warp.getWorld());
+                statement.setInt(n++, warp.getX());
+                statement.setInt(n++, warp.getY());
+                statement.setInt(n++, warp.getZ());
+                statement.setFloat(n++, warp.getPitch());
+                statement.setFloat(n, warp.getYaw());
+
+                return statement.executeUpdate();
+
+            }
+        });
+
+    }
+
+
+    @Override
+    public void deleteWarp (UUID identifier) throws SQLException {
+
+        pool.execute((lease) -> {
+            try (PreparedStatement statement = lease.prepare(DELETE_WARP)) {
+                setUuid(statement, 1, identifier);
+                return statement.executeUpdate();
+            }
+        });
+
+    }
+
+
+    @Override
+    public void close () {
+        pool.close();
+    }
+
+
+    /**
+     * Maps an atomic player to the update statement.
+     *
+     * @param statement Prepared statement to map player to.
+     * @param player    Player to map to statement.
+     */
+    private void mapPlayerToStatement (PreparedStatement statement, AtomicPlayer player)
+            throws SQLException {
+
+        int n = 1;
+
+        statement.setString(n++, player.getUsername());
+        statement.setString(n++, player.getDisplayName());
+        statement.setInt(n++, player.getLevel());
+        statement.setInt(n++, player.getExperience());
+        statement.setTimestamp(n++, player.getLastSeen());
+        statement.setInt(n++, player.getLoginCount());
+        statement.setShort(n++, player.getVerbosity());
+        setUuid(statement, n, player.getIdentifier());
+
+    }
+
+
+    /**
+     * Takes an SQL result set, and maps the returned columns
+     * to Atomic Player objects.
+     *
+     * @param rs Result set from SQL query.
+     * @return List of players from the result set.
+     */
+    private List<AtomicPlayer> mapResultsToPlayers (ResultSet rs) throws SQLException {
+
+        List<AtomicPlayer> players = new ArrayList<>();
+
+        while (rs.next()) {
+
+            AtomicPlayer player = new AtomicPlayer();
+
+            player.setIdentifier(getUuid(rs, "player_id"));
+            player.setUsername(rs.getString("username"));
+            player.setDisplayName(rs.getString("display_name"));
+            player.setLevel(rs.getInt("level"));
+            player.setExperience(rs.getInt("experience"));
+            player.setLastSeen(rs.getTimestamp("last_seen"));
+            player.setLoginCount(rs.getInt("login_count"));
+            player.setVerbosity(rs.getShort("verbosity"));
+
+            // Freshly loaded, so nothing to save
+            player.setDirty(false);
+
+            players.add(player);
+
+        }
+
+        return players;
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public ConnectionPool getPool () {
+        return pool;
+    }
+
+}
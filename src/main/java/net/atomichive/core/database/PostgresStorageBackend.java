@@ -0,0 +1,64 @@
+package net.atomichive.core.database;
+
+import io.seanbailey.database.DatabaseManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * PostgreSQL Storage Backend
+ * Stores data in a PostgreSQL server. UUIDs use the native
+ * UUID type, and the schema is kept up to date with the
+ * migrations in resources/migrations.
+ */
+public class PostgresStorageBackend extends JdbcStorageBackend {
+
+    private final DatabaseManager migrations;
+
+
+    /**
+     * PostgreSQL Storage Backend
+     *
+     * @param pool       Pool of connections to the server.
+     * @param migrations Database manager to run migrations with.
+     */
+    public PostgresStorageBackend (ConnectionPool pool, DatabaseManager migrations) {
+        super(pool);
+        this.migrations = migrations;
+    }
+
+
+    @Override
+    public void migrate () {
+        migrations.setMigrationsPath("migrations");
+        migrations.migrate();
+    }
+
+
+    @Override
+    protected void setUuid (PreparedStatement statement, int index, UUID value) throws SQLException {
+        statement.setObject(index, value);
+    }
+
+
+    @Override
+    protected UUID getUuid (ResultSet rs, String column) throws SQLException {
+        return (UUID) rs.getObject(column);
+    }
+
+
+    @Override
+    public void close () {
+        super.close();
+        migrations.closeConnection();
+    }
+
+
+    @Override
+    public String getName () {
+        return "postgres";
+    }
+
+}
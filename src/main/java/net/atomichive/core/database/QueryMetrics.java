@@ -0,0 +1,263 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.Main;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Query Metrics
+ * Per operation timings for the storage backend, a log of
+ * recent slow queries, and the call sites of any database
+ * calls made on the server main thread (which stall the tick).
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+
+    private static final int SLOW_LOG_SIZE = 20;
+    private static final int MAX_SITES = 50;
+    private static final int SITE_DEPTH = 8; // Stack frames kept per site
+
+    public enum Operation {
+        FIND_PLAYER,
+        INSERT_PLAYER,
+        UPDATE_PLAYERS,
+        GET_RANKINGS,
+        GET_WARPS,
+        INSERT_WARP,
+        DELETE_WARP
+    }
+
+    private final Map<Operation, QueryStats> stats = new EnumMap<>(Operation.class);
+    private final Deque<String> slowLog = new ArrayDeque<>(SLOW_LOG_SIZE);
+    private final Map<String, AtomicLong> mainThreadSites = new ConcurrentHashMap<>();
+    private final AtomicLong mainThreadCalls = new AtomicLong();
+
+
+    /**
+     * Query Metrics
+     *
+     * @param thresholds Milliseconds before each operation counts
+     *                   as slow. Zero or less never counts as slow.
+     */
+    public QueryMetrics (Map<Operation, Long> thresholds) {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new QueryStats(
+                    operation.name().toLowerCase(),
+                    thresholds.getOrDefault(operation, 0L)
+            ));
+        }
+    }
+
+
+    /**
+     * Records a single call to the storage backend.
+     *
+     * @param operation  Operation called.
+     * @param nanos      Time taken.
+     * @param failed     Whether the call threw.
+     * @param mainThread Whether it was called on the main thread.
+     */
+    void record (Operation operation, long nanos, boolean failed, boolean mainThread) {
+
+        QueryStats query = stats.get(operation);
+
+        if (query.record(nanos, failed)) {
+
+            String entry = String.format(
+                    "%s %s %.1fms%s%s",
+                    new SimpleDateFormat("HH:mm:ss").format(new Date()),
+                    query.getName(),
+                    nanos / 1e6,
+                    failed ? " (failed)" : "",
+                    mainThread ? " (main thread)" : ""
+            );
+
+            synchronized (slowLog) {
+                if (slowLog.size() >= SLOW_LOG_SIZE)
+                    slowLog.removeFirst();
+                slowLog.addLast(entry);
+            }
+
+            Main.getInstance().log(Level.WARNING, "Slow query: " + entry);
+
+        }
+
+        if (mainThread)
+            recordMainThread(query.getName());
+
+    }
+
+
+    /**
+     * Records the call site of a database call made on the
+     * main thread. Each new site is logged once.
+     */
+    private void recordMainThread (String operation) {
+
+        mainThreadCalls.incrementAndGet();
+
+        String site = operation + " at " + getCallSite();
+        AtomicLong count = mainThreadSites.get(site);
+
+        if (count == null) {
+
+            // Bound memory, in case of generated call sites
+            if (mainThreadSites.size() >= MAX_SITES) return;
+
+            count = mainThreadSites.computeIfAbsent(site, key -> {
+                Main.getInstance().log(Level.WARNING, "Database call on the main thread: " + key);
+                return new AtomicLong();
+            });
+
+        }
+
+        count.incrementAndGet();
+
+    }
+
+
+    /**
+     * Gets the caller's stack, skipping frames inside the
+     * storage layer itself.
+     */
+    private static String getCallSite () {
+
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        String pkg = QueryMetrics.class.getPackage().getName();
+        int start = 0;
+
+        while (start < stack.length && (stack[start].getClassName().startsWith(pkg)
+                || stack[start].getClassName().endsWith("DAO")))
+            start++;
+
+        StringBuilder site = new StringBuilder();
+
+        for (int i = start; i < Math.min(stack.length, start + SITE_DEPTH); i++) {
+            if (i > start) site.append(" < ");
+            site.append(stack[i].getClassName().substring(stack[i].getClassName().lastIndexOf('.') + 1))
+                    .append('.')
+                    .append(stack[i].getMethodName())
+                    .append(':')
+                    .append(stack[i].getLineNumber());
+        }
+
+        return site.toString();
+
+    }
+
+
+    @Override
+    public void reset () {
+
+        for (QueryStats query : stats.values())
+            query.reset();
+
+        synchronized (slowLog) {
+            slowLog.clear();
+        }
+
+        mainThreadSites.clear();
+        mainThreadCalls.set(0);
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public QueryStats get (Operation operation) {
+        return stats.get(operation);
+    }
+
+    public List<QueryStats> getAll () {
+        return new ArrayList<>(stats.values());
+    }
+
+    public List<String> getSlowLog () {
+        synchronized (slowLog) {
+            return new ArrayList<>(slowLog);
+        }
+    }
+
+    /**
+     * @return Main thread call sites, most frequent first.
+     */
+    public Map<String, Long> getMainThreadSites () {
+        return mainThreadSites.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> entry.getValue().get(),
+                        (a, b) -> a,
+                        LinkedHashMap::new
+                ));
+    }
+
+    @Override
+    public long getMainThreadCalls () {
+        return mainThreadCalls.get();
+    }
+
+    @Override
+    public long getQueries () {
+        return stats.values().stream().mapToLong(query -> query.getTime().getCount()).sum();
+    }
+
+    @Override
+    public long getErrors () {
+        return stats.values().stream().mapToLong(QueryStats::getErrors).sum();
+    }
+
+    @Override
+    public long getSlowQueries () {
+        return stats.values().stream().mapToLong(QueryStats::getSlow).sum();
+    }
+
+    @Override
+    public Map<String, Double> getMeanMillis () {
+        return collect(query -> query.getTime().getMean() / 1e6);
+    }
+
+    @Override
+    public Map<String, Double> getP99Millis () {
+        return collect(query -> query.getTime().getPercentile(99) / 1e6);
+    }
+
+    @Override
+    public Map<String, Double> getMaxMillis () {
+        return collect(query -> query.getTime().getMax() / 1e6);
+    }
+
+    @Override
+    public String[] getRecentSlowQueries () {
+        return getSlowLog().toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getMainThreadCallSites () {
+        return getMainThreadSites().entrySet().stream()
+                .map(entry -> entry.getValue() + "x " + entry.getKey())
+                .toArray(String[]::new);
+    }
+
+    private Map<String, Double> collect (ToDoubleFunction<QueryStats> value) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (QueryStats query : stats.values())
+            values.put(query.getName(), value.applyAsDouble(query));
+        return values;
+    }
+
+}
@@ -0,0 +1,30 @@
+package net.atomichive.core.database;
+
+import java.util.Map;
+
+/**
+ * JMX view of storage query metrics.
+ */
+public interface QueryMetricsMXBean {
+
+    long getQueries ();
+
+    long getErrors ();
+
+    long getSlowQueries ();
+
+    long getMainThreadCalls ();
+
+    Map<String, Double> getMeanMillis ();
+
+    Map<String, Double> getP99Millis ();
+
+    Map<String, Double> getMaxMillis ();
+
+    String[] getRecentSlowQueries ();
+
+    String[] getMainThreadCallSites ();
+
+    void reset ();
+
+}
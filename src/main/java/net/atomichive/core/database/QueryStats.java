@@ -0,0 +1,87 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.util.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Query Stats
+ * Timings for a single storage operation.
+ */
+public class QueryStats {
+
+    private final String name;
+    private final long threshold; // Nanoseconds before a query is slow
+    private final Histogram time = new Histogram(); // Nanoseconds per call
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+
+
+    /**
+     * Query Stats
+     *
+     * @param name      Operation name.
+     * @param threshold Milliseconds before a call counts as slow.
+     */
+    QueryStats (String name, long threshold) {
+        this.name = name;
+        this.threshold = threshold * 1000000L;
+    }
+
+
+    /**
+     * Records a single call.
+     *
+     * @param nanos  Time the call took.
+     * @param failed Whether the call threw.
+     * @return Whether the call was slow.
+     */
+    boolean record (long nanos, boolean failed) {
+
+        time.record(nanos);
+
+        if (failed)
+            errors.incrementAndGet();
+
+        if (threshold > 0 && nanos >= threshold) {
+            slow.incrementAndGet();
+            return true;
+        }
+
+        return false;
+
+    }
+
+
+    void reset () {
+        time.reset();
+        errors.set(0);
+        slow.set(0);
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public String getName () {
+        return name;
+    }
+
+    public long getThresholdMillis () {
+        return threshold / 1000000L;
+    }
+
+    public Histogram getTime () {
+        return time;
+    }
+
+    public long getErrors () {
+        return errors.get();
+    }
+
+    public long getSlow () {
+        return slow.get();
+    }
+
+}
@@ -0,0 +1,356 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.player.Leaderboard;
+import net.atomichive.core.warp.Warp;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resilient Storage Backend
+ * Wraps another backend with a circuit breaker and a write
+ * journal. While the database is unhealthy, reads fail fast
+ * (callers must not mistake that for missing data), and writes
+ * are appended to the journal instead of being lost. Journalled
+ * writes are replayed in order before anything else once the
+ * database is reachable again, so reads never see stale data.
+ */
+public class ResilientStorageBackend implements StorageBackend {
+
+    private final StorageBackend delegate;
+    private final CircuitBreaker breaker;
+    private final WriteJournal journal;
+    private final Logger logger;
+    private final Object replayLock = new Object();
+
+
+    /**
+     * Resilient Storage Backend
+     *
+     * @param delegate Backend to protect.
+     * @param breaker  Breaker tracking the backend's health.
+     * @param journal  Journal for writes made while unhealthy.
+     * @param logger   Logger for replay progress.
+     */
+    public ResilientStorageBackend (StorageBackend delegate, CircuitBreaker breaker,
+                                    WriteJournal journal, Logger logger) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.journal = journal;
+        this.logger = logger;
+    }
+
+
+    @Override
+    public void migrate () throws SQLException {
+        delegate.migrate();
+    }
+
+
+    @Override
+    public List<AtomicPlayer> findPlayers (UUID identifier) throws SQLException {
+        return read(() -> delegate.findPlayers(identifier));
+    }
+
+
+    @Override
+    public List<Leaderboard.Entry> getRankings () throws SQLException {
+        return read(delegate::getRankings);
+    }
+
+
+    @Override
+    public List<Warp> getWarps () throws SQLException {
+        return read(delegate::getWarps);
+    }
+
+
+    @Override
+    public void insertPlayer (AtomicPlayer player) throws SQLException {
+        write(WriteJournal.Entry.insertPlayer(player));
+    }
+
+
+    @Override
+    public void updatePlayers (Collection<AtomicPlayer> players) throws SQLException {
+        if (!players.isEmpty())
+            write(WriteJournal.Entry.updatePlayers(new ArrayList<>(players)));
+    }
+
+
+    @Override
+    public void insertWarp (Warp warp) throws SQLException {
+        write(WriteJournal.Entry.insertWarp(warp));
+    }
+
+
+    @Override
+    public void deleteWarp (UUID identifier) throws SQLException {
+        write(WriteJournal.Entry.deleteWarp(identifier));
+    }
+
+
+    @Override
+    public boolean isOutage (SQLException e) {
+        return delegate.isOutage(e);
+    }
+
+
+    @Override
+    public void close () {
+        delegate.close();
+    }
+
+
+    @Override
+    public String getName () {
+        return delegate.getName();
+    }
+
+
+    /**
+     * Runs a read, once any journalled writes are replayed.
+     *
+     * @throws SQLException if the database is unavailable,
+     *                      or the read failed.
+     */
+    private <T> T read (Read<T> read) throws SQLException {
+
+        if (!breaker.allow())
+            throw unavailable();
+
+        try {
+
+            replay();
+
+            T result = read.run();
+            breaker.success();
+            return result;
+
+        } catch (SQLException e) {
+            record(e);
+            throw e;
+        }
+
+    }
+
+
+    /**
+     * Applies a write, or journals it if the database is
+     * unavailable. Writes are only journalled when the database
+     * itself is at fault; rejected writes (e.g. constraint
+     * violations) are thrown as normal.
+     *
+     * @throws SQLException if the write was rejected, or
+     *                      couldn't be journalled either.
+     */
+    private void write (WriteJournal.Entry entry) throws SQLException {
+
+        if (breaker.allow()) {
+
+            try {
+
+                // Keep order: only write directly once the journal is empty
+                replay();
+                apply(entry);
+                breaker.success();
+                return;
+
+            } catch (SQLException e) {
+                record(e);
+                if (!isOutage(e))
+                    throw e;
+            }
+
+        }
+
+        // Replay rewrites the journal, so don't append mid-replay
+        synchronized (replayLock) {
+            try {
+                journal.append(entry);
+            } catch (IOException e) {
+                throw new SQLException("Database unavailable, and could not journal write.", e);
+            }
+        }
+
+    }
+
+
+    /**
+     * Replays journalled writes, oldest first. Replayed writes
+     * are removed from the journal as a batch once done, or as
+     * far as replay got if it stopped part way.
+     * Only call once the breaker has allowed a call.
+     *
+     * @throws SQLException if the database failed during replay,
+     *                      or the journal couldn't be read.
+     */
+    private void replay () throws SQLException {
+
+        if (journal.isEmpty())
+            return;
+
+        synchronized (replayLock) {
+
+            List<WriteJournal.Entry> entries;
+
+            try {
+                entries = journal.read();
+            } catch (IOException e) {
+                // Not the database's fault, so don't trip the breaker
+                throw new SQLException("Could not read write journal.", "58030", e);
+            }
+
+            int replayed = 0;
+
+            try {
+
+                for (WriteJournal.Entry entry : entries) {
+
+                    try {
+                        apply(entry);
+                    } catch (SQLException e) {
+                        if (isOutage(e)) throw e;
+
+                        // Can never succeed, so don't block the rest of the journal
+                        logger.log(Level.WARNING, String.format(
+                                "Dropped journalled %s from %d: %s",
+                                entry.getOp(),
+                                entry.getTime(),
+                                e.getMessage()
+                        ));
+                    }
+
+                    replayed++;
+
+                }
+
+                if (replayed > 0) {
+                    logger.log(Level.INFO, String.format(
+                            "Replayed %d journalled database writes.",
+                            replayed
+                    ));
+                }
+
+            } finally {
+                truncate(entries, replayed);
+            }
+
+        }
+
+    }
+
+
+    /**
+     * Replays the journal if the breaker allows it. Used to
+     * recover in the background, without waiting for traffic.
+     *
+     * @return Whether the journal is now empty.
+     */
+    public boolean recover () {
+
+        if (journal.isEmpty())
+            return true;
+
+        if (!breaker.allow())
+            return false;
+
+        try {
+            replay();
+            breaker.success();
+            return journal.isEmpty();
+        } catch (SQLException e) {
+            record(e);
+            return false;
+        }
+
+    }
+
+
+    private void apply (WriteJournal.Entry entry) throws SQLException {
+
+        switch (entry.getOp()) {
+
+            case INSERT_PLAYER:
+                for (AtomicPlayer player : entry.getPlayers())
+                    delegate.insertPlayer(player);
+                break;
+
+            case UPDATE_PLAYERS:
+                delegate.updatePlayers(entry.getPlayers());
+                break;
+
+            case INSERT_WARP:
+                delegate.insertWarp(entry.getWarp());
+                break;
+
+            case DELETE_WARP:
+                delegate.deleteWarp(entry.getIdentifier());
+                break;
+
+        }
+
+    }
+
+
+    /**
+     * Removes replayed entries from the journal.
+     */
+    private void truncate (List<WriteJournal.Entry> entries, int replayed) {
+
+        if (replayed == 0) return;
+
+        try {
+            journal.rewrite(new ArrayList<>(entries.subList(replayed, entries.size())));
+        } catch (IOException e) {
+            // Entries will be replayed again, which is safe for
+            // updates and deletes, and fails harmlessly for inserts
+            logger.log(Level.SEVERE, "Could not truncate write journal: " + e.getMessage());
+        }
+
+    }
+
+
+    private void record (SQLException e) {
+        if (isOutage(e))
+            breaker.failure();
+        else
+            breaker.success();
+    }
+
+
+    private static SQLException unavailable () {
+        return new SQLException("Database unavailable.", "08000");
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public CircuitBreaker getBreaker () {
+        return breaker;
+    }
+
+    public WriteJournal getJournal () {
+        return journal;
+    }
+
+    public StorageBackend getDelegate () {
+        return delegate;
+    }
+
+
+    @FunctionalInterface
+    private interface Read<T> {
+        T run () throws SQLException;
+    }
+
+}
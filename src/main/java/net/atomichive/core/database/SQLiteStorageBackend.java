@@ -0,0 +1,134 @@
+package net.atomichive.core.database;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * SQLite Storage Backend
+ * Stores data in a single local file, so small servers
+ * don't need a database server at all. The SQLite driver
+ * ships with Spigot.
+ * UUIDs are stored as text, and the schema is created from
+ * resources/schema/sqlite.sql.
+ */
+public class SQLiteStorageBackend extends JdbcStorageBackend {
+
+    private static final String SCHEMA = "/schema/sqlite.sql";
+
+    // SQLite result codes which mean the file, not the statement,
+    // is at fault. The driver gives every error a null SQL state.
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final int SQLITE_IOERR = 10;
+    private static final int SQLITE_CANTOPEN = 14;
+
+
+    /**
+     * SQLite Storage Backend
+     *
+     * @param file    Database file, created if it doesn't exist.
+     * @param timeout Maximum milliseconds to wait for the connection.
+     */
+    public SQLiteStorageBackend (File file, long timeout) {
+
+        // SQLite serialises writes anyway, so a single
+        // connection avoids "database is locked" errors
+        super(new ConnectionPool(
+                "jdbc:sqlite:" + file.getAbsolutePath(),
+                null, null,
+                1, timeout
+        ));
+
+    }
+
+
+    /**
+     * Creates any missing tables. Every statement in the
+     * schema must be safe to run more than once.
+     */
+    @Override
+    public void migrate () throws SQLException {
+
+        String schema;
+
+        try (InputStream in = SQLiteStorageBackend.class.getResourceAsStream(SCHEMA)) {
+
+            if (in == null)
+                throw new SQLException("Missing schema " + SCHEMA);
+
+            schema = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    .lines()
+                    .collect(Collectors.joining("\n"));
+
+        } catch (IOException e) {
+            throw new SQLException("Could not read schema " + SCHEMA, e);
+        }
+
+        pool.execute((lease) -> {
+            try (Statement statement = lease.getConnection().createStatement()) {
+
+                for (String sql : schema.split(";")) {
+                    if (!sql.trim().isEmpty())
+                        statement.executeUpdate(sql);
+                }
+
+                return null;
+
+            }
+        });
+
+    }
+
+
+    @Override
+    protected void setUuid (PreparedStatement statement, int index, UUID value) throws SQLException {
+        statement.setString(index, value == null ? null : value.toString());
+    }
+
+
+    @Override
+    protected UUID getUuid (ResultSet rs, String column) throws SQLException {
+        String value = rs.getString(column);
+        return value == null ? null : UUID.fromString(value);
+    }
+
+
+    @Override
+    public boolean isOutage (SQLException e) {
+
+        if (super.isOutage(e))
+            return true;
+
+        if (e.getSQLState() != null)
+            return false;
+
+        // Extended result codes keep the primary code in the low byte
+        switch (e.getErrorCode() & 0xff) {
+            case SQLITE_BUSY:
+            case SQLITE_LOCKED:
+            case SQLITE_IOERR:
+            case SQLITE_CANTOPEN:
+                return true;
+            default:
+                return false;
+        }
+
+    }
+
+
+    @Override
+    public String getName () {
+        return "sqlite";
+    }
+
+}
@@ -0,0 +1,136 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.player.Leaderboard;
+import net.atomichive.core.warp.Warp;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Storage Backend
+ * Where persistent plugin data lives. The data access
+ * objects delegate to whichever backend is configured
+ * (see the storage option in config.yml).
+ * Implementations must be safe to use from any thread.
+ */
+public interface StorageBackend {
+
+    /**
+     * Creates or updates the schema.
+     *
+     * @throws SQLException if the schema could not be created.
+     */
+    void migrate () throws SQLException;
+
+
+    /**
+     * Finds all players with the given identifier.
+     *
+     * @param identifier Player UUID.
+     * @return Matching players, empty if there are none.
+     * @throws SQLException if the query failed.
+     */
+    List<AtomicPlayer> findPlayers (UUID identifier) throws SQLException;
+
+
+    /**
+     * Adds a new player.
+     *
+     * @param player Player to add.
+     * @throws SQLException if the insert failed.
+     */
+    void insertPlayer (AtomicPlayer player) throws SQLException;
+
+
+    /**
+     * Updates existing players, in a single batch.
+     *
+     * @param players Players to update.
+     * @throws SQLException if the batch failed.
+     */
+    void updatePlayers (Collection<AtomicPlayer> players) throws SQLException;
+
+
+    /**
+     * Gets the level and experience of every player, for
+     * seeding the leaderboard.
+     *
+     * @return Leaderboard entries, in no particular order.
+     * @throws SQLException if the query failed.
+     */
+    List<Leaderboard.Entry> getRankings () throws SQLException;
+
+
+    /**
+     * Gets all warps.
+     *
+     * @return All warps.
+     * @throws SQLException if the query failed.
+     */
+    List<Warp> getWarps () throws SQLException;
+
+
+    /**
+     * Adds a new warp.
+     *
+     * @param warp Warp to add.
+     * @throws SQLException if the insert failed.
+     */
+    void insertWarp (Warp warp) throws SQLException;
+
+
+    /**
+     * Deletes a warp.
+     *
+     * @param identifier Warp UUID.
+     * @throws SQLException if the delete failed.
+     */
+    void deleteWarp (UUID identifier) throws SQLException;
+
+
+    /**
+     * Determines whether an exception means the database is
+     * unreachable or unhealthy, rather than the statement
+     * being rejected. Rejected statements would fail the same
+     * way if retried, so must never count as an outage.
+     *
+     * @param e Exception thrown by this backend.
+     * @return Whether the database itself is at fault.
+     */
+    default boolean isOutage (SQLException e) {
+
+        if (e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException)
+            return true;
+
+        String state = e.getSQLState();
+
+        // No state says nothing about the database's health
+        return state != null && (
+                state.startsWith("08")     // Connection exception
+                || state.startsWith("53")  // Insufficient resources
+                || state.startsWith("57")  // Operator intervention (e.g. shutdown)
+        );
+
+    }
+
+
+    /**
+     * Releases any connections held by the backend.
+     */
+    void close ();
+
+
+    /**
+     * @return Short name of the backend, for logging.
+     */
+    String getName ();
+
+}
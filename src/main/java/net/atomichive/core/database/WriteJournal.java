@@ -0,0 +1,263 @@
+package net.atomichive.core.database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.warp.Warp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Write Journal
+ * An append-only file of database writes which couldn't be
+ * made, one JSON entry per line. Each append is synced to
+ * disk, so writes survive a crash or restart and can be
+ * replayed, in order, once the database is back.
+ */
+public class WriteJournal {
+
+    private final File file;
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Timestamp.class, (JsonSerializer<Timestamp>)
+                    (value, type, context) -> new JsonPrimitive(value.getTime()))
+            .registerTypeAdapter(Timestamp.class, (JsonDeserializer<Timestamp>)
+                    (json, type, context) -> new Timestamp(json.getAsLong()))
+            .create();
+
+    // Entry count, kept outside the lock so the main thread
+    // can check for a backlog without waiting on disk I/O
+    private volatile int size = 0;
+
+
+    /**
+     * Write Journal
+     *
+     * Entries left over from a previous run are counted here,
+     * during startup.
+     *
+     * @param file Journal file, created on first append.
+     */
+    public WriteJournal (File file) {
+
+        this.file = file;
+
+        try {
+            read();
+        } catch (IOException ignored) {
+            // Counted again on the next read
+        }
+
+    }
+
+
+    /**
+     * Appends an entry, and syncs it to disk.
+     *
+     * @param entry Entry to append.
+     * @throws IOException if the entry could not be written.
+     */
+    public synchronized void append (Entry entry) throws IOException {
+
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(gson.toJson(entry));
+            writer.write('\n');
+            writer.flush();
+
+            out.getFD().sync();
+
+        }
+
+        size++;
+
+    }
+
+
+    /**
+     * Reads every entry, oldest first. Lines which can't
+     * be parsed (a write torn by a crash) are skipped.
+     *
+     * @return Journal entries.
+     * @throws IOException if the journal could not be read.
+     */
+    public synchronized List<Entry> read () throws IOException {
+
+        List<Entry> entries = new ArrayList<>();
+
+        if (!file.exists())
+            return entries;
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+
+                if (line.trim().isEmpty()) continue;
+
+                try {
+                    Entry entry = gson.fromJson(line, Entry.class);
+                    if (entry != null && entry.op != null)
+                        entries.add(entry);
+                } catch (JsonParseException ignored) {
+                }
+
+            }
+
+        }
+
+        size = entries.size();
+
+        return entries;
+
+    }
+
+
+    /**
+     * Replaces the journal with the given entries, used to
+     * drop entries which have been replayed. The new file is
+     * written beside the journal, then moved over it.
+     *
+     * @param entries Entries to keep.
+     * @throws IOException if the journal could not be written.
+     */
+    public synchronized void rewrite (List<Entry> entries) throws IOException {
+
+        if (entries.isEmpty()) {
+            Files.deleteIfExists(file.toPath());
+            size = 0;
+            return;
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+            for (Entry entry : entries) {
+                writer.write(gson.toJson(entry));
+                writer.write('\n');
+            }
+
+            writer.flush();
+            out.getFD().sync();
+
+        }
+
+        Files.move(
+                temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+        );
+
+        size = entries.size();
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public int size () {
+        return size;
+    }
+
+    public boolean isEmpty () {
+        return size == 0;
+    }
+
+    public File getFile () {
+        return file;
+    }
+
+
+    /**
+     * A single journalled write.
+     */
+    public static class Entry {
+
+        public enum Op {
+            INSERT_PLAYER,
+            UPDATE_PLAYERS,
+            INSERT_WARP,
+            DELETE_WARP
+        }
+
+        private Op op;
+        private long time;
+        private List<AtomicPlayer> players;
+        private Warp warp;
+        private UUID identifier;
+
+        private Entry (Op op) {
+            this.op = op;
+            this.time = System.currentTimeMillis();
+        }
+
+        public static Entry insertPlayer (AtomicPlayer player) {
+            Entry entry = new Entry(Op.INSERT_PLAYER);
+            entry.players = new ArrayList<>();
+            entry.players.add(player);
+            return entry;
+        }
+
+        public static Entry updatePlayers (List<AtomicPlayer> players) {
+            Entry entry = new Entry(Op.UPDATE_PLAYERS);
+            entry.players = players;
+            return entry;
+        }
+
+        public static Entry insertWarp (Warp warp) {
+            Entry entry = new Entry(Op.INSERT_WARP);
+            entry.warp = warp;
+            return entry;
+        }
+
+        public static Entry deleteWarp (UUID identifier) {
+            Entry entry = new Entry(Op.DELETE_WARP);
+            entry.identifier = identifier;
+            return entry;
+        }
+
+        public Op getOp () {
+            return op;
+        }
+
+        public long getTime () {
+            return time;
+        }
+
+        public List<AtomicPlayer> getPlayers () {
+            return players;
+        }
+
+        public Warp getWarp () {
+            return warp;
+        }
+
+        public UUID getIdentifier () {
+            return identifier;
+        }
+
+    }
+
+}
@@ -1,19 +1,14 @@
 package net.atomichive.core.entity;
 
-import net.atomichive.core.Main;
-import net.atomichive.core.entity.abilities.*;
+import net.atomichive.core.entity.abilities.GenericAbilityHandler;
+import net.atomichive.core.entity.abilities.TimedAbilityHandler;
 import net.atomichive.core.exception.CustomObjectException;
 import net.atomichive.core.nms.NMSUtil;
 import net.atomichive.core.nms.VolatileGoalSelector;
-import net.atomichive.core.nms.goals.*;
-import net.atomichive.core.util.SmartMap;
-import net.atomichive.core.util.Util;
 import org.bukkit.entity.Entity;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.logging.Level;
 
 /**
  * Represents an entity who is active in the world.
@@ -25,11 +20,12 @@ public class ActiveEntity {
     private VolatileGoalSelector goals;   // Pathfinding goals
     private VolatileGoalSelector targets; // Pathfinding targets
     private Entity owner;                 // Owning entity, if one exists
+    private EntityBlueprint blueprint;    // Blueprint this entity was spawned from
 
-    // Abilities
-    private List<GenericAbilityHandler> onAttack = new ArrayList<>();
-    private List<GenericAbilityHandler> onDamage = new ArrayList<>();
-    private List<TimedAbilityHandler> onTimer = new ArrayList<>();
+    // Abilities (shared with all entities of the same blueprint)
+    private List<GenericAbilityHandler> onAttack = Collections.emptyList();
+    private List<GenericAbilityHandler> onDamage = Collections.emptyList();
+    private List<TimedAbilityHandler> onTimer = Collections.emptyList();
 
 
     /**
@@ -44,317 +40,58 @@ public class ActiveEntity {
 
 
     /**
-     * Handles pathfinding map from entities.json, and applies
-     * custom pathfinding to the entity as necessary.
+     * Wires up the abilities of a compiled blueprint.
      *
-     * @param pathfinding Pathfinding map.
+     * @param blueprint Compiled custom entity.
      */
-    void applyPathfinding (Map pathfinding) throws CustomObjectException {
-
-        // Ensure pathfinding map has been defined.
-        if (pathfinding == null) return;
-
-        this.goals   = NMSUtil.getGoalSelector(this.entity, VolatileGoalSelector.Type.GOAL);
-        this.targets = NMSUtil.getGoalSelector(this.entity, VolatileGoalSelector.Type.TARGET);
-
-        if (pathfinding.containsKey("goals")) {
-            handlePathfindingList(
-                    pathfinding.get("goals"),
-                    VolatileGoalSelector.Type.GOAL
-            );
-        }
-
-        if (pathfinding.containsKey("targets")) {
-            handlePathfindingList(
-                    pathfinding.get("targets"),
-                    VolatileGoalSelector.Type.TARGET
-            );
-        }
-
-    }
-
-
-    /**
-     * Handles a list of pathfinding goals or targets.
-     *
-     * @param list List of pathfinding goals to parse.
-     * @param type Whether to handle goals of targets.
-     */
-    private void handlePathfindingList (Object list, VolatileGoalSelector.Type type)
-            throws CustomObjectException {
-
-        // Ensure object can be parsed as list
-        if (!(list instanceof List)) {
-            throw new CustomObjectException(String.format(
-                    "Pathfinding %ss could not be parsed as a list.",
-                    type.name().toLowerCase()
-            ));
-        }
-
-        // Iterate over items in list
-        for (Object selector : (List) list) {
-
-            // Ensure selector is a string
-            if (!(selector instanceof String)) {
-                throw new CustomObjectException("Pathfinding selectors must be strings.");
-            }
-
-            // Split at first string
-            String[] components = ((String) selector).split(" ", 2);
-            String goal;
-            int priority = 0;
-
-            switch (components.length) {
-                case 0:
-                    continue;
-                case 1:
-                    goal = components[0].toLowerCase();
-                    break;
-                default:
-                    priority = parsePriority(components[0]);
-                    goal = components[1].toLowerCase();
-            }
-
-            switch (type) {
-                case GOAL:
-                    parseGoalSelector(goal, priority);
-                    break;
-                case TARGET:
-                    parseTargetSelector(goal, priority);
-                    break;
-            }
-
-        }
-
-    }
-
-
-    /**
-     * Parses and applies a goal selector.
-     *
-     * @param goal Goal selector.
-     * @param priority Priority of this selector.
-     */
-    private void parseGoalSelector (String goal, int priority) throws CustomObjectException {
-
-        VolatileGoal volatileGoal;
-
-        switch (goal) {
-            case "clear":
-                this.goals.clear();
-                return;
-            case "swim":
-                volatileGoal = new VolatileGoalFloat(entity);
-                break;
-            case "look_around":
-                volatileGoal = new VolatileGoalLookAround(entity);
-                break;
-            case "random_stroll":
-                volatileGoal = new VolatileGoalRandomStroll(entity);
-                break;
-            case "look_at_player":
-                volatileGoal = new VolatileGoalLookAtPlayer(entity);
-                break;
-            case "follow_owner":
-                volatileGoal = new VolatileGoalFollowEntity(entity, this.getOwner());
-                break;
-            case "melee_attack":
-                volatileGoal = new VolatileGoalMelee(entity);
-                break;
-            case "flee_player":
-                volatileGoal = new VolatileGoalFleePlayer(entity);
-                break;
-            default:
-                throw new CustomObjectException(String.format(
-                        "Unknown goal selector: '%s'.",
-                        goal
-                ));
-        }
-
-        this.goals.add(priority, volatileGoal);
-
-    }
-
-
-    /**
-     * Parses and applies a target selector.
-     *
-     * @param target Target selector.
-     * @param priority Priority of this selector.
-     */
-    private void parseTargetSelector (String target, int priority) throws CustomObjectException {
-
-        VolatileGoal volatileTargets;
-
-        switch (target) {
-            case "clear":
-                this.targets.clear();
-                return;
-            case "attacker":
-                volatileTargets = new VolatileTargetAttacker(entity);
-                break;
-            case "players":
-                volatileTargets = new VolatileTargetPlayer(entity);
-                break;
-            default:
-                throw new CustomObjectException(String.format(
-                        "Unknown target selector: '%s'.",
-                        target
-                ));
-        }
-
-        this.targets.add(priority, volatileTargets);
-
+    void applyAbilities (EntityBlueprint blueprint) {
+        this.blueprint = blueprint;
+        this.onAttack = blueprint.getOnAttack();
+        this.onDamage = blueprint.getOnDamage();
+        this.onTimer = blueprint.getOnTimer();
     }
 
 
     /**
-     * Parses a priority string.
+     * Applies the compiled pathfinding goals and targets
+     * of a blueprint to this entity.
      *
-     * @param str Priority as a string.
-     * @return Parsed priority.
+     * @param blueprint Compiled custom entity.
      */
-    private int parsePriority (String str) throws CustomObjectException {
+    void applyPathfinding (EntityBlueprint blueprint) throws CustomObjectException {
 
-        // Ensure str is an integer
-        if (!Util.isInteger(str)) {
-            throw new CustomObjectException("Pathfinding priority could not be parsed as an integer.");
-        }
-
-        int priority = Integer.parseInt(str);
-
-        // Ensure priority is positive
-        if (priority < 0) {
-            throw new CustomObjectException("Pathfinding priority cannot be negative.");
-        }
-
-        return priority;
-
-    }
+        // Ensure pathfinding has been defined.
+        if (!blueprint.hasPathfinding()) return;
 
+        this.goals   = NMSUtil.getGoalSelector(this.entity, VolatileGoalSelector.Type.GOAL);
+        this.targets = NMSUtil.getGoalSelector(this.entity, VolatileGoalSelector.Type.TARGET);
 
-    /**
-     * Parses and applies abilities.
-     *
-     * @param abilities Map array of abilities. Where
-     *                  each map is an ability.
-     */
-    void applyAbilities (Map[] abilities) {
-
-        // Iterate over each map
-        for (Map ability : abilities) {
-            // Note: By catching here we can continue if a problem occurs.
-            try {
-                parseAbility(ability);
-            } catch (CustomObjectException e) {
-                Main.getInstance().log(Level.SEVERE, e.getMessage());
-            }
-        }
+        applyPathfindingSteps(goals, blueprint.getGoals());
+        applyPathfindingSteps(targets, blueprint.getTargets());
 
     }
 
 
     /**
-     * Parse and applies an ability.
+     * Applies a list of compiled pathfinding steps to
+     * a goal selector.
      *
-     * @param map An ability map.
+     * @param selector Goal or target selector.
+     * @param steps    Compiled pathfinding steps.
      */
-    private void parseAbility (Map map) throws CustomObjectException {
-
-        SmartMap attributes = new SmartMap(map);
-        Ability ability = getBaseAbility(attributes);
-
-        // Determine trigger and target
-        String trigger = attributes.get(String.class, "trigger");
-        String target  = attributes.get(String.class, "target");
-
-        // Ensure a trigger was defined.
-        if (trigger == null) {
-            throw new CustomObjectException("Ability has no trigger defined.");
-        }
-
-
-        int radius = attributes.getInteger("radius", 30);
-        int ticks  = attributes.getInteger("ticks",  10);
+    private void applyPathfindingSteps (VolatileGoalSelector selector, List<EntityBlueprint.PathfindingStep> steps)
+            throws CustomObjectException {
 
-        Ability.Target abilityTarget = Ability.Target.CLOSEST_ENTITY;
+        for (EntityBlueprint.PathfindingStep step : steps) {
 
-        // Attempt to get target
-        if (target != null) {
-            try {
-                abilityTarget = Ability.Target.valueOf(target.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new CustomObjectException(String.format(
-                        "Unknown ability target: '%s'.",
-                        target
-                ));
+            // A step without a factory clears the selector
+            if (step.getFactory() == null) {
+                selector.clear();
+                continue;
             }
-        }
-
-
-        // Add ability
-        switch (trigger) {
-            case "on_attack":
-                this.onAttack.add(new GenericAbilityHandler(ability, abilityTarget, radius));
-                break;
-            case "on_damage":
-                this.onDamage.add(new GenericAbilityHandler(ability, abilityTarget, radius));
-                break;
-            case "on_timer":
-                this.onTimer.add(new TimedAbilityHandler(ability, abilityTarget, radius, ticks));
-                break;
-            default:
-                throw new CustomObjectException(String.format(
-                        "Unknown ability trigger: '%s'.",
-                        trigger
-                ));
-        }
-
-    }
-
-
-    /**
-     * Returns a base ability as defined in a smart map.
-     *
-     * @param attributes Ability smart map.
-     * @return Base ability
-     */
-    private Ability getBaseAbility (SmartMap attributes) throws CustomObjectException {
-
-        // Get base as string
-        String base = attributes.get(String.class, "base");
 
-        // Ensure base was defined
-        if (base == null) {
-            throw new CustomObjectException("An ability was created but no base ability was defined.");
-        }
+            selector.add(step.getPriority(), step.getFactory().create(this));
 
-        switch (base.toLowerCase()) {
-            case "effect":
-                return new AbilityEffect(attributes);
-            case "explode":
-                return new AbilityExplode(attributes);
-            case "fireball":
-                return new AbilityFireball();
-            case "ignite":
-                return new AbilityIgnite(attributes);
-            case "lightning":
-                return new AbilityLightning();
-            case "snowball":
-                return new AbilitySnowball();
-            case "summon":
-                return new AbilitySummon(attributes);
-            case "swap_places":
-                return new AbilitySwapPlaces();
-            case "throw":
-                return new AbilityThrow(attributes);
-            case "throw_block":
-                return new AbilityThrowBlock(attributes);
-            default:
-                throw new CustomObjectException(String.format(
-                        "Failed to add ability. Unknown base '%s'.",
-                        base
-                ));
         }
 
     }
@@ -443,6 +180,10 @@ public class ActiveEntity {
         this.owner = owner;
     }
 
+    public EntityBlueprint getBlueprint () {
+        return blueprint;
+    }
+
     public List<TimedAbilityHandler> getOnTimer () {
         return onTimer;
     }
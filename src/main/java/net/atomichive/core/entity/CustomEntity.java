@@ -6,11 +6,11 @@ import net.atomichive.core.entity.atomic.AtomicEntity;
 import net.atomichive.core.exception.CustomObjectException;
 import net.atomichive.core.util.SmartMap;
 import net.atomichive.core.util.Util;
-import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 
+import java.lang.reflect.Modifier;
 import java.util.Map;
 import java.util.logging.Level;
 
@@ -61,34 +61,43 @@ public class CustomEntity {
     @SerializedName("class_attributes")           // Local attributes, specific to entity class
     private Map<String, Object> classAttributes;
 
+    // Compiled definition, built once at load
+    private transient EntityBlueprint blueprint;
+
 
     /**
-     * Creates a new active entity.
-     *
-     * @param location Location to spawn entity.
-     * @return Active Entity.
+     * Validates and compiles this custom entity into a
+     * blueprint, so spawning does not need to resolve classes
+     * or parse attributes every time. Should be called once,
+     * whenever the entity is loaded.
      */
-    public ActiveEntity spawn (Location location) throws CustomObjectException {
-        return spawn(location, null);
-    }
+    public void compile () throws CustomObjectException {
 
+        // Ensure a name and class were defined
+        if (name == null) {
+            throw new CustomObjectException("A custom entity was defined without a name.");
+        }
 
-    /**
-     * Creates a new active entity.
-     *
-     * @param location Location to spawn entity.
-     * @return Active Entity.
-     */
-    public ActiveEntity spawn (Location location, Entity owner) throws CustomObjectException {
+        if (this.entityClass == null) {
+            throw new CustomObjectException(String.format(
+                    "No entity class defined in custom entity '%s'.",
+                    name
+            ));
+        }
 
-        Class entityClass;
-        AtomicEntity entity;
+        Class<?> clazz;
 
         // Attempt to get class
         try {
             // Get class by name
-            entityClass = Class.forName(ATOMIC_STUB + Util.toCamelCase(this.entityClass));
+            clazz = Class.forName(ATOMIC_STUB + Util.toCamelCase(this.entityClass));
         } catch (ClassNotFoundException e) {
+            clazz = null;
+        }
+
+        // Ensure class is a concrete atomic entity
+        if (clazz == null || !AtomicEntity.class.isAssignableFrom(clazz)
+                || Modifier.isAbstract(clazz.getModifiers())) {
             throw new CustomObjectException(String.format(
                     "Unknown entity class '%s' in custom entity '%s'.",
                     this.entityClass,
@@ -96,18 +105,53 @@ public class CustomEntity {
             ));
         }
 
+        AtomicEntity spawner;
+
         // Construct instance
         try {
-            entity = (AtomicEntity) entityClass.newInstance();
-        } catch (InstantiationException | IllegalAccessException e) {
-            e.printStackTrace();
-            return null;
+            spawner = clazz.asSubclass(AtomicEntity.class).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new CustomObjectException(String.format(
+                    "Entity class '%s' in custom entity '%s' cannot be constructed.",
+                    this.entityClass,
+                    name
+            ));
         }
 
-        // Calling init will apply class attributes
-        entity.init(new SmartMap(classAttributes));
+        // Calling init will apply class attributes. Atomic entities
+        // only hold configuration, so one instance spawns them all.
+        spawner.init(new SmartMap(classAttributes));
+
+        blueprint = new EntityBlueprint(this, spawner);
 
-        ActiveEntity activeEntity = new ActiveEntity(entity.spawn(location));
+    }
+
+
+    /**
+     * Creates a new active entity.
+     *
+     * @param location Location to spawn entity.
+     * @return Active Entity.
+     */
+    public ActiveEntity spawn (Location location) throws CustomObjectException {
+        return spawn(location, null);
+    }
+
+
+    /**
+     * Creates a new active entity.
+     *
+     * @param location Location to spawn entity.
+     * @return Active Entity.
+     */
+    public ActiveEntity spawn (Location location, Entity owner) throws CustomObjectException {
+
+        // Ensure entity has been compiled
+        if (blueprint == null) {
+            compile();
+        }
+
+        ActiveEntity activeEntity = new ActiveEntity(blueprint.getSpawner().spawn(location));
         activeEntity.setOwner(owner);
         activeEntity.setLevel(level);
 
@@ -127,35 +171,7 @@ public class CustomEntity {
         // Get entity
         Entity entity = activeEntity.getEntity();
 
-        String customName;
-        String prefix = "";
-
-        SmartMap merchantMap;
-
-        if (this.merchant != null) {
-            merchantMap = new SmartMap(this.merchant);
-            prefix = merchantMap.get(String.class, "prefix", "");
-            if (!prefix.isEmpty()) {
-                prefix = String.format(
-                        "%s[%s]%s ",
-                        ChatColor.YELLOW, prefix, ChatColor.RESET
-                );
-            }
-        }
-
-        // Set entity name
-        if (this.displayName == null) {
-            customName = Util.toTitleCase(this.name);
-        } else {
-            customName = this.displayName;
-        }
-
-        entity.setCustomName(String.format(
-                "%s<COLOR>%s [%d]",
-                prefix,
-                customName,
-                this.level
-        ));
+        entity.setCustomName(blueprint.getCustomName());
 
         // Apply misc. attributes
         entity.setCustomNameVisible(this.isNameVisible);
@@ -177,9 +193,7 @@ public class CustomEntity {
 
 
         try {
-            if (this.pathfinding != null) {
-                activeEntity.applyPathfinding(pathfinding);
-            }
+            activeEntity.applyPathfinding(blueprint);
         } catch (CustomObjectException e) {
             Main.getInstance().log(Level.SEVERE, String.format(
                     "Failed to apply pathfinding to custom entity '%s': %s",
@@ -188,9 +202,7 @@ public class CustomEntity {
             ));
         }
 
-        if (this.abilities != null) {
-            activeEntity.applyAbilities(abilities);
-        }
+        activeEntity.applyAbilities(blueprint);
 
         return activeEntity;
 
@@ -227,6 +239,14 @@ public class CustomEntity {
         return abilities;
     }
 
+    public Map getMerchant () {
+        return merchant;
+    }
+
+    public EntityBlueprint getBlueprint () {
+        return blueprint;
+    }
+
     public String getEntityClass () {
         return entityClass;
     }
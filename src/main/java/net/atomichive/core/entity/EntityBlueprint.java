@@ -0,0 +1,430 @@
+package net.atomichive.core.entity;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.entity.abilities.*;
+import net.atomichive.core.entity.atomic.AtomicEntity;
+import net.atomichive.core.exception.CustomObjectException;
+import net.atomichive.core.nms.VolatileGoalSelector;
+import net.atomichive.core.nms.goals.*;
+import net.atomichive.core.util.SmartMap;
+import net.atomichive.core.util.Util;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entity Blueprint
+ * A custom entity definition which has been validated and
+ * compiled at load time. Pathfinding and abilities are parsed
+ * once here, so spawning an entity is only a matter of
+ * instantiating it and wiring everything up.
+ * Abilities and their handlers hold no per-entity state, so
+ * they are shared between every entity spawned from this
+ * blueprint.
+ */
+public class EntityBlueprint {
+
+    // Pathfinding goal factories, by name
+    private static final Map<String, GoalFactory> GOALS = new HashMap<>();
+    private static final Map<String, GoalFactory> TARGETS = new HashMap<>();
+
+    static {
+        GOALS.put("swim",           (active) -> new VolatileGoalFloat(active.getEntity()));
+        GOALS.put("look_around",    (active) -> new VolatileGoalLookAround(active.getEntity()));
+        GOALS.put("random_stroll",  (active) -> new VolatileGoalRandomStroll(active.getEntity()));
+        GOALS.put("look_at_player", (active) -> new VolatileGoalLookAtPlayer(active.getEntity()));
+        GOALS.put("follow_owner",   (active) -> new VolatileGoalFollowEntity(active.getEntity(), active.getOwner()));
+        GOALS.put("melee_attack",   (active) -> new VolatileGoalMelee(active.getEntity()));
+        GOALS.put("flee_player",    (active) -> new VolatileGoalFleePlayer(active.getEntity()));
+
+        TARGETS.put("attacker",     (active) -> new VolatileTargetAttacker(active.getEntity()));
+        TARGETS.put("players",      (active) -> new VolatileTargetPlayer(active.getEntity()));
+    }
+
+
+    private final String name;             // Unique name of the custom entity
+    private final String customName;       // Formatted name tag
+    private final AtomicEntity spawner;    // Initialised atomic entity, used to spawn
+    private final boolean hasPathfinding;  // Whether pathfinding was defined
+
+    private final List<PathfindingStep> goals = new ArrayList<>();
+    private final List<PathfindingStep> targets = new ArrayList<>();
+
+    private final List<GenericAbilityHandler> onAttack = new ArrayList<>();
+    private final List<GenericAbilityHandler> onDamage = new ArrayList<>();
+    private final List<TimedAbilityHandler> onTimer = new ArrayList<>();
+
+
+    /**
+     * Compiles a custom entity definition.
+     *
+     * @param entity  Custom entity definition.
+     * @param spawner Atomic entity, with class attributes applied.
+     * @throws CustomObjectException if any part of the definition is invalid.
+     */
+    EntityBlueprint (CustomEntity entity, AtomicEntity spawner) throws CustomObjectException {
+
+        this.name = entity.getName();
+        this.spawner = spawner;
+        this.customName = formatName(entity);
+        this.hasPathfinding = entity.getPathfinding() != null;
+
+        try {
+
+            if (hasPathfinding) {
+                compilePathfinding(entity.getPathfinding());
+            }
+
+            if (entity.getAbilities() != null) {
+                for (Map ability : entity.getAbilities())
+                    compileAbility(ability);
+            }
+
+        } catch (CustomObjectException e) {
+            throw new CustomObjectException(String.format(
+                    "Invalid custom entity '%s': %s",
+                    name,
+                    e.getMessage()
+            ));
+        }
+
+    }
+
+
+    /**
+     * Formats the name tag of this entity, including
+     * any merchant prefix.
+     *
+     * @param entity Custom entity definition.
+     * @return Formatted name.
+     */
+    private static String formatName (CustomEntity entity) {
+
+        String prefix = "";
+
+        if (entity.getMerchant() != null) {
+            prefix = new SmartMap(entity.getMerchant()).get(String.class, "prefix", "");
+            if (!prefix.isEmpty()) {
+                prefix = String.format(
+                        "%s[%s]%s ",
+                        ChatColor.YELLOW, prefix, ChatColor.RESET
+                );
+            }
+        }
+
+        // Determine entity name
+        String customName = (entity.getDisplayName() == null) ?
+                Util.toTitleCase(entity.getName()) : entity.getDisplayName();
+
+        return String.format(
+                "%s<COLOR>%s [%d]",
+                prefix,
+                customName,
+                entity.getLevel()
+        );
+
+    }
+
+
+    /**
+     * Compiles the pathfinding map from entities.json.
+     *
+     * @param pathfinding Pathfinding map.
+     */
+    private void compilePathfinding (Map pathfinding) throws CustomObjectException {
+
+        if (pathfinding.containsKey("goals")) {
+            compilePathfindingList(pathfinding.get("goals"), VolatileGoalSelector.Type.GOAL);
+        }
+
+        if (pathfinding.containsKey("targets")) {
+            compilePathfindingList(pathfinding.get("targets"), VolatileGoalSelector.Type.TARGET);
+        }
+
+    }
+
+
+    /**
+     * Compiles a list of pathfinding goals or targets.
+     *
+     * @param list List of pathfinding goals to parse.
+     * @param type Whether to handle goals of targets.
+     */
+    private void compilePathfindingList (Object list, VolatileGoalSelector.Type type)
+            throws CustomObjectException {
+
+        // Ensure object can be parsed as list
+        if (!(list instanceof List)) {
+            throw new CustomObjectException(String.format(
+                    "Pathfinding %ss could not be parsed as a list.",
+                    type.name().toLowerCase()
+            ));
+        }
+
+        boolean isGoal = type == VolatileGoalSelector.Type.GOAL;
+
+        // Iterate over items in list
+        for (Object selector : (List) list) {
+
+            // Ensure selector is a string
+            if (!(selector instanceof String)) {
+                throw new CustomObjectException("Pathfinding selectors must be strings.");
+            }
+
+            // Split at first string
+            String[] components = ((String) selector).split(" ", 2);
+            String goal;
+            int priority = 0;
+
+            switch (components.length) {
+                case 0:
+                    continue;
+                case 1:
+                    goal = components[0].toLowerCase();
+                    break;
+                default:
+                    priority = parsePriority(components[0]);
+                    goal = components[1].toLowerCase();
+            }
+
+            GoalFactory factory = null;
+
+            // Note: A null factory clears the selector
+            if (!goal.equals("clear")) {
+
+                factory = (isGoal ? GOALS : TARGETS).get(goal);
+
+                if (factory == null) {
+                    throw new CustomObjectException(String.format(
+                            "Unknown %s selector: '%s'.",
+                            isGoal ? "goal" : "target",
+                            goal
+                    ));
+                }
+
+            }
+
+            (isGoal ? goals : targets).add(new PathfindingStep(priority, factory));
+
+        }
+
+    }
+
+
+    /**
+     * Parses a priority string.
+     *
+     * @param str Priority as a string.
+     * @return Parsed priority.
+     */
+    private static int parsePriority (String str) throws CustomObjectException {
+
+        // Ensure str is an integer
+        if (!Util.isInteger(str)) {
+            throw new CustomObjectException("Pathfinding priority could not be parsed as an integer.");
+        }
+
+        int priority = Integer.parseInt(str);
+
+        // Ensure priority is positive
+        if (priority < 0) {
+            throw new CustomObjectException("Pathfinding priority cannot be negative.");
+        }
+
+        return priority;
+
+    }
+
+
+    /**
+     * Compiles an ability map into an ability handler.
+     *
+     * @param map An ability map.
+     */
+    private void compileAbility (Map map) throws CustomObjectException {
+
+        SmartMap attributes = new SmartMap(map);
+        Ability ability = getBaseAbility(attributes);
+
+        // Determine trigger and target
+        String trigger = attributes.get(String.class, "trigger");
+        String target  = attributes.get(String.class, "target");
+
+        // Ensure a trigger was defined.
+        if (trigger == null) {
+            throw new CustomObjectException("Ability has no trigger defined.");
+        }
+
+
+        int radius = attributes.getInteger("radius", 30);
+        int ticks  = attributes.getInteger("ticks",  10);
+
+        Ability.Target abilityTarget = Ability.Target.CLOSEST_ENTITY;
+
+        // Attempt to get target
+        if (target != null) {
+            try {
+                abilityTarget = Ability.Target.valueOf(target.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new CustomObjectException(String.format(
+                        "Unknown ability target: '%s'.",
+                        target
+                ));
+            }
+        }
+
+
+        // Add ability
+        GenericAbilityHandler handler;
+
+        switch (trigger) {
+            case "on_attack":
+                handler = new GenericAbilityHandler(ability, abilityTarget, radius);
+                onAttack.add(handler);
+                break;
+            case "on_damage":
+                handler = new GenericAbilityHandler(ability, abilityTarget, radius);
+                onDamage.add(handler);
+                break;
+            case "on_timer":
+                handler = new TimedAbilityHandler(ability, abilityTarget, radius, ticks);
+                onTimer.add((TimedAbilityHandler) handler);
+                break;
+            default:
+                throw new CustomObjectException(String.format(
+                        "Unknown ability trigger: '%s'.",
+                        trigger
+                ));
+        }
+
+        // Attach metrics (null if disabled)
+        AbilityMetrics metrics = Main.getInstance().getEntityManager().getAbilityMetrics();
+        handler.setStats(metrics.get(name, attributes.get(String.class, "base").toLowerCase()));
+
+    }
+
+
+    /**
+     * Returns a base ability as defined in a smart map.
+     *
+     * @param attributes Ability smart map.
+     * @return Base ability
+     */
+    private static Ability getBaseAbility (SmartMap attributes) throws CustomObjectException {
+
+        // Get base as string
+        String base = attributes.get(String.class, "base");
+
+        // Ensure base was defined
+        if (base == null) {
+            throw new CustomObjectException("An ability was created but no base ability was defined.");
+        }
+
+        switch (base.toLowerCase()) {
+            case "effect":
+                return new AbilityEffect(attributes);
+            case "explode":
+                return new AbilityExplode(attributes);
+            case "fireball":
+                return new AbilityFireball();
+            case "ignite":
+                return new AbilityIgnite(attributes);
+            case "lightning":
+                return new AbilityLightning();
+            case "snowball":
+                return new AbilitySnowball();
+            case "summon":
+                return new AbilitySummon(attributes);
+            case "swap_places":
+                return new AbilitySwapPlaces();
+            case "throw":
+                return new AbilityThrow(attributes);
+            case "throw_block":
+                return new AbilityThrowBlock(attributes);
+            default:
+                throw new CustomObjectException(String.format(
+                        "Failed to add ability. Unknown base '%s'.",
+                        base
+                ));
+        }
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public String getName () {
+        return name;
+    }
+
+    public String getCustomName () {
+        return customName;
+    }
+
+    AtomicEntity getSpawner () {
+        return spawner;
+    }
+
+    boolean hasPathfinding () {
+        return hasPathfinding;
+    }
+
+    List<PathfindingStep> getGoals () {
+        return goals;
+    }
+
+    List<PathfindingStep> getTargets () {
+        return targets;
+    }
+
+    List<GenericAbilityHandler> getOnAttack () {
+        return onAttack;
+    }
+
+    List<GenericAbilityHandler> getOnDamage () {
+        return onDamage;
+    }
+
+    List<TimedAbilityHandler> getOnTimer () {
+        return onTimer;
+    }
+
+
+    /**
+     * Creates a pathfinding goal for a particular entity.
+     */
+    @FunctionalInterface
+    interface GoalFactory {
+        VolatileGoal create (ActiveEntity entity);
+    }
+
+
+    /**
+     * A single compiled pathfinding selector.
+     */
+    static class PathfindingStep {
+
+        private final int priority;
+        private final GoalFactory factory; // Null if this step clears the selector
+
+        PathfindingStep (int priority, GoalFactory factory) {
+            this.priority = priority;
+            this.factory = factory;
+        }
+
+        int getPriority () {
+            return priority;
+        }
+
+        GoalFactory getFactory () {
+            return factory;
+        }
+
+    }
+
+}
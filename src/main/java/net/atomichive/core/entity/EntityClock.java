@@ -2,29 +2,163 @@ package net.atomichive.core.entity;
 
 import net.atomichive.core.Main;
 import net.atomichive.core.entity.abilities.TimedAbilityHandler;
+import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Entity Clock
  * This clocks entire purpose is essentially just
- * to tick entity abilities.
+ * to tick entity abilities. Timed abilities are kept
+ * in a timing wheel, so each cycle only touches the
+ * abilities which are actually due.
+ * The clock runs every server tick, but only starts a new
+ * cycle every few ticks. Due abilities are run in order
+ * under a time budget, and anything left over carries on
+ * from the same place next tick.
+ * An ability is only ever in the backlog once. If it comes
+ * due again while still waiting, that run is skipped rather
+ * than queued twice, and the backlog is capped, so sustained
+ * overload sheds work instead of piling it up.
  */
 public class EntityClock extends BukkitRunnable {
 
+    private final int period;     // Server ticks per clock cycle
+    private final long budget;    // Nanoseconds allowed per server tick
+    private final int maxBacklog; // Most abilities waiting at once
+
+    // Abilities which are due, but have not been run yet
+    private final Deque<ScheduledAbility> backlog = new ArrayDeque<>();
+
+    private int ticks = 0;              // Server ticks since the last cycle started
+    private long cycleNanos = 0;        // Time spent on the current cycle so far
+    private long lastCycleNanos = 0;    // Time spent on the previous cycle
+    private int lastCycleAbilities = 0; // Abilities which were due last cycle
+    private long skipped = 0;           // Runs skipped, as the last one was still waiting
+    private long dropped = 0;           // Runs dropped, as the backlog was full
+
+
+    /**
+     * Entity Clock
+     *
+     * @param period     Server ticks per clock cycle.
+     * @param budget     Maximum nanoseconds to spend per server tick.
+     * @param maxBacklog Maximum abilities waiting to run at once.
+     */
+    public EntityClock (int period, long budget, int maxBacklog) {
+        this.period = Math.max(1, period);
+        this.budget = budget;
+        this.maxBacklog = Math.max(1, maxBacklog);
+    }
+
+
     @Override
     public void run () {
 
-        // Get all active entities
-        List<ActiveEntity> entities = Main.getInstance().getEntityManager()
-                .getActiveEntities();
+        long start = System.nanoTime();
+        EntityManager manager = Main.getInstance().getEntityManager();
+
+        if (ticks == 0) {
+            startCycle(manager);
+        }
+
+        ticks = (ticks + 1) % period;
+
+        long deadline = start + budget;
+
+        // Run abilities in order until we run out of time.
+        // At least one is always run so the backlog can't stall.
+        while (!backlog.isEmpty()) {
+
+            ScheduledAbility scheduled = backlog.poll();
+            ActiveEntity entity = scheduled.getEntity();
+
+            scheduled.setQueued(false);
+
+            if (manager.isActive(entity) && entity.getEntity().isValid())
+                scheduled.getHandler().run(entity.getEntity());
+
+            if (System.nanoTime() > deadline)
+                break;
+
+        }
+
+        cycleNanos += System.nanoTime() - start;
+
+    }
+
+
+    /**
+     * Starts a new clock cycle. Refreshes the spatial index
+     * and queues up every ability which is now due.
+     *
+     * @param manager Entity manager.
+     */
+    private void startCycle (EntityManager manager) {
 
-        // Tick all entities
-        for (ActiveEntity entity : entities)
-            for (TimedAbilityHandler handler : entity.getOnTimer())
-                handler.tick(entity.getEntity());
+        lastCycleNanos = cycleNanos;
+        cycleNanos = 0;
+
+        // Refresh entity and player positions used for targeting
+        manager.getSpatialIndex().rebuild(
+                manager.getActiveEntities(),
+                Bukkit.getOnlinePlayers()
+        );
+
+        // Queue timed abilities which are due this cycle
+        lastCycleAbilities = manager.getAbilityWheel().advance((scheduled) -> {
+
+            ActiveEntity entity = scheduled.getEntity();
+
+            // Drop abilities of entities that are no longer tracked
+            if (!manager.isActive(entity) || !entity.getEntity().isValid())
+                return 0;
+
+            if (scheduled.isQueued()) {
+                skipped++;
+            } else if (backlog.size() >= maxBacklog) {
+                dropped++;
+            } else {
+                scheduled.setQueued(true);
+                backlog.add(scheduled);
+            }
+
+            TimedAbilityHandler handler = scheduled.getHandler();
+            return handler.getMaxTicks();
+
+        });
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public int getBacklog () {
+        return backlog.size();
+    }
+
+    public long getLastCycleNanos () {
+        return lastCycleNanos;
+    }
+
+    public int getLastCycleAbilities () {
+        return lastCycleAbilities;
+    }
+
+    public long getBudget () {
+        return budget;
+    }
+
+    public long getSkipped () {
+        return skipped;
+    }
 
+    public long getDropped () {
+        return dropped;
     }
 
 }
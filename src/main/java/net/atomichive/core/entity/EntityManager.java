@@ -4,12 +4,20 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.stream.MalformedJsonException;
 import net.atomichive.core.JsonManager;
+import net.atomichive.core.Main;
+import net.atomichive.core.entity.abilities.AbilityMetrics;
+import net.atomichive.core.entity.abilities.TimedAbilityHandler;
 import net.atomichive.core.exception.CustomObjectException;
+import net.atomichive.core.util.TimingWheel;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
 
 /**
  * A class which tracks all custom entities, as well as
@@ -17,8 +25,33 @@ import java.util.List;
  */
 public class EntityManager extends JsonManager {
 
-    private List<CustomEntity> customEntities = new ArrayList<>();
-    private List<ActiveEntity> activeEntities = new ArrayList<>();
+    // Custom entities, keyed by lower case name
+    private Map<String, CustomEntity> customEntities = new LinkedHashMap<>();
+
+    // Active entities, indexed by both UUID and entity id
+    private Map<UUID, ActiveEntity> activeEntities = new LinkedHashMap<>();
+    private Map<Integer, ActiveEntity> activeEntitiesById = new HashMap<>();
+
+    // Spatial index of active entities and players, used for targeting
+    private SpatialIndex spatialIndex = new SpatialIndex();
+
+    // Timed abilities, scheduled by the clock cycle they are next due
+    private TimingWheel<ScheduledAbility> abilityWheel = new TimingWheel<>(64);
+    private Random random = new Random();
+
+    // Number of active entities removed because they were no longer valid
+    private long reapedCount = 0;
+
+    // Bumped whenever an active entity is added or removed
+    private int modCount = 0;
+
+    // Caps on the number of active entities
+    private PopulationGovernor governor = new PopulationGovernor(Main.getInstance().getBukkitConfig());
+
+    // Per ability execution metrics
+    private AbilityMetrics abilityMetrics = new AbilityMetrics(
+            Main.getInstance().getBukkitConfig().getBoolean("ability_metrics", false)
+    );
 
 
     /**
@@ -57,6 +90,10 @@ public class EntityManager extends JsonManager {
         Gson gson = new Gson();
         CustomEntity entity = gson.fromJson(element, CustomEntity.class);
 
+        // Compile entity now, so that bad definitions fail once
+        // at load rather than on every spawn.
+        entity.compile();
+
         // Ensure entity has not already been defined.
         if (contains(entity)) {
             throw new CustomObjectException(String.format(
@@ -65,7 +102,7 @@ public class EntityManager extends JsonManager {
             ));
         }
 
-        customEntities.add(entity);
+        customEntities.put(entity.getName().toLowerCase(), entity);
 
         return entity.toString();
 
@@ -78,7 +115,24 @@ public class EntityManager extends JsonManager {
      * @param entity Active entity to add.
      */
     public void add (ActiveEntity entity) {
-        activeEntities.add(entity);
+
+        Entity bukkit = entity.getEntity();
+
+        activeEntities.put(bukkit.getUniqueId(), entity);
+        activeEntitiesById.put(bukkit.getEntityId(), entity);
+        spatialIndex.insert(bukkit, false);
+        governor.track(entity);
+        modCount++;
+
+        // Schedule timed abilities, with a random initial phase so
+        // entities spawned together don't all fire on the same tick.
+        for (TimedAbilityHandler handler : entity.getOnTimer()) {
+            abilityWheel.schedule(
+                    new ScheduledAbility(entity, handler),
+                    1 + random.nextInt(handler.getMaxTicks())
+            );
+        }
+
     }
 
 
@@ -88,7 +142,36 @@ public class EntityManager extends JsonManager {
      * @param entity Bukkit entity to remove.
      */
     public void remove (Entity entity) {
-        remove(getActiveEntity(entity));
+
+        ActiveEntity active = activeEntities.remove(entity.getUniqueId());
+
+        if (active != null) {
+            activeEntitiesById.remove(active.getEntity().getEntityId());
+            governor.untrack(active);
+            modCount++;
+        }
+
+    }
+
+
+    /**
+     * Stops tracking an entity which has left the world
+     * without dying, e.g. despawned or unloaded.
+     *
+     * @param entity Bukkit entity to reap.
+     * @return Whether the entity was being tracked.
+     */
+    public boolean reap (Entity entity) {
+
+        // Ensure entity is tracked
+        if (!activeEntities.containsKey(entity.getUniqueId()))
+            return false;
+
+        remove(entity);
+        reapedCount++;
+
+        return true;
+
     }
 
 
@@ -98,26 +181,39 @@ public class EntityManager extends JsonManager {
      * @param entity Active entity to remove.
      */
     public void remove (ActiveEntity entity) {
-        activeEntities.remove(entity);
+
+        // Ensure entity is not null
+        if (entity == null) return;
+
+        remove(entity.getEntity());
+
     }
 
 
     /**
-     * A simple search through existing custom entities
-     * which compares the unique names.
+     * Determines whether a custom entity with the same
+     * unique name has already been defined.
      *
      * @param entity Entity to search for.
      * @return Whether this custom entity is already defined.
      */
     public boolean contains (CustomEntity entity) {
+        return customEntities.containsKey(entity.getName().toLowerCase());
+    }
 
-        // Iterate over custom entities
-        for (CustomEntity e : customEntities) {
-            if (e.getName().equalsIgnoreCase(entity.getName()))
-                return true;
-        }
 
-        return false;
+    /**
+     * Retrieves a custom entity by its unique name.
+     *
+     * @param name Name of custom entity (case insensitive).
+     * @return Custom entity with matching name or null.
+     */
+    public CustomEntity getCustomEntity (String name) {
+
+        // Ensure name is not null
+        if (name == null) return null;
+
+        return customEntities.get(name.toLowerCase());
 
     }
 
@@ -130,37 +226,55 @@ public class EntityManager extends JsonManager {
      */
     public ActiveEntity getActiveEntity (Entity entity) {
 
-        // Iterate over active entities
-        for (ActiveEntity active : activeEntities) {
-            if (active.is(entity))
-                return active;
-        }
+        // Ensure entity is not null
+        if (entity == null) return null;
+
+        return activeEntities.get(entity.getUniqueId());
+
+    }
 
-        return null;
 
+    /**
+     * Determines whether an active entity is still
+     * being tracked.
+     *
+     * @param entity Active entity.
+     * @return Whether the entity is tracked.
+     */
+    public boolean isActive (ActiveEntity entity) {
+        return activeEntities.get(entity.getEntity().getUniqueId()) == entity;
     }
 
 
     /**
-     * Spawns a new custom entity
+     * Attempts to find a corresponding active entity by
+     * its entity id.
+     * Note: Main thread only. Packet handlers should use
+     * the packet snapshot instead.
+     *
+     * @param entityId Bukkit entity id.
+     * @return Corresponding active entity or null.
+     */
+    public ActiveEntity getActiveEntity (int entityId) {
+        return activeEntitiesById.get(entityId);
+    }
+
+
+    /**
+     * Spawns a new custom entity. Spawns are subject to the
+     * population caps, and stop at the first denied spawn.
      *
      * @param location   Desired spawn location.
      * @param entityName Name of custom entity to spawn.
      * @param count      Number of entities to spawn.
      * @param owner      Owner of spawned entities. Can be null.
+     * @return Number of entities actually spawned.
      */
-    public void spawnEntity (Location location, String entityName, int count, Entity owner)
+    public int spawnEntity (Location location, String entityName, int count, Entity owner)
             throws CustomObjectException {
 
-        CustomEntity customEntity = null;
-
         // Determine which entity needs to be spawned
-        for (CustomEntity e : customEntities) {
-            if (e.getName().equalsIgnoreCase(entityName)) {
-                customEntity = e;
-                break;
-            }
-        }
+        CustomEntity customEntity = getCustomEntity(entityName);
 
         // Ensure entity was found
         if (customEntity == null) {
@@ -170,10 +284,30 @@ public class EntityManager extends JsonManager {
             ));
         }
 
+        int spawned = 0;
+
         for (int i = 0; i < count; i++) {
-            add(customEntity.spawn(location, owner));
+
+            // Further spawns would hit the same cap
+            if (governor.check(customEntity, location, owner, spatialIndex) != null)
+                break;
+
+            ActiveEntity entity = customEntity.spawn(location, owner);
+
+            if (entity != null) {
+                add(entity);
+                spawned++;
+            }
+
         }
 
+        // Make new entities visible to packet handlers before
+        // their spawn packets go out
+        if (spawned > 0 && Main.getInstance().getPacketSnapshots() != null)
+            Main.getInstance().getPacketSnapshots().publish();
+
+        return spawned;
+
     }
 
 
@@ -181,12 +315,36 @@ public class EntityManager extends JsonManager {
         Getters and setters.
      */
 
-    public List<CustomEntity> getCustomEntities () {
-        return customEntities;
+    public Collection<CustomEntity> getCustomEntities () {
+        return customEntities.values();
+    }
+
+    public Collection<ActiveEntity> getActiveEntities () {
+        return activeEntities.values();
+    }
+
+    public long getReapedCount () {
+        return reapedCount;
+    }
+
+    public int getModCount () {
+        return modCount;
+    }
+
+    TimingWheel<ScheduledAbility> getAbilityWheel () {
+        return abilityWheel;
+    }
+
+    public SpatialIndex getSpatialIndex () {
+        return spatialIndex;
+    }
+
+    public PopulationGovernor getGovernor () {
+        return governor;
     }
 
-    public List<ActiveEntity> getActiveEntities () {
-        return activeEntities;
+    public AbilityMetrics getAbilityMetrics () {
+        return abilityMetrics;
     }
 
 }
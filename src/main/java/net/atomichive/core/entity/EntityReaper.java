@@ -0,0 +1,69 @@
+package net.atomichive.core.entity;
+
+import net.atomichive.core.Main;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity Reaper
+ * Periodically sweeps active entities, and removes any
+ * whose Bukkit entity is no longer valid (despawned, removed
+ * by another plugin, or in an unloaded chunk). Each run is
+ * limited to a time budget, and picks up where the last run
+ * left off.
+ */
+public class EntityReaper extends BukkitRunnable {
+
+    private final long budget; // Nanoseconds allowed per run
+    private int cursor = 0;    // Position in pending list
+
+    // Entities left to check in the current sweep
+    private List<ActiveEntity> pending = new ArrayList<>();
+
+
+    /**
+     * Entity Reaper
+     *
+     * @param budget Maximum nanoseconds to spend per run.
+     */
+    public EntityReaper (long budget) {
+        this.budget = budget;
+    }
+
+
+    @Override
+    public void run () {
+
+        EntityManager manager = Main.getInstance().getEntityManager();
+        long deadline = System.nanoTime() + budget;
+
+        // Start a new sweep if the last one finished
+        if (cursor >= pending.size()) {
+            pending = new ArrayList<>(manager.getActiveEntities());
+            cursor = 0;
+        }
+
+        while (cursor < pending.size()) {
+
+            ActiveEntity entity = pending.get(cursor++);
+
+            if (!entity.getEntity().isValid())
+                manager.reap(entity.getEntity());
+
+            // Check budget every few entities, as nanoTime isn't free
+            if ((cursor & 31) == 0 && System.nanoTime() > deadline)
+                break;
+
+        }
+
+        // Release references once the sweep is complete
+        if (cursor >= pending.size()) {
+            pending.clear();
+            cursor = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+package net.atomichive.core.entity;
+
+import org.bukkit.Location;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Population Governor
+ * Enforces caps on the number of active custom entities, so
+ * abilities which summon other summoners can't grow without
+ * bound. Spawns above any cap are denied rather than queued,
+ * and denials are counted by the cap responsible.
+ * Note: Only intended to be used from the main thread.
+ */
+public class PopulationGovernor {
+
+    /**
+     * Caps which can deny a spawn.
+     */
+    public enum Cap {
+        GLOBAL,
+        TYPE,
+        CHUNK,
+        OWNER
+    }
+
+
+    private final int maxGlobal;
+    private final int maxPerType;
+    private final int maxPerChunk;
+    private final int maxPerOwner;
+
+    // Live counts of active entities
+    private final Map<String, Integer> typeCounts = new HashMap<>();
+    private final Map<UUID, Integer> ownerCounts = new HashMap<>();
+    private int total = 0;
+
+    private long spawned = 0;
+    private final long[] denied = new long[Cap.values().length];
+
+
+    /**
+     * Population Governor
+     * A cap of zero (or less) is treated as no cap.
+     *
+     * @param config Plugin configuration.
+     */
+    PopulationGovernor (Configuration config) {
+        this.maxGlobal = config.getInt("max_entities", 1000);
+        this.maxPerType = config.getInt("max_entities_per_type", 250);
+        this.maxPerChunk = config.getInt("max_entities_per_chunk", 50);
+        this.maxPerOwner = config.getInt("max_entities_per_owner", 16);
+    }
+
+
+    /**
+     * Determines whether a custom entity may be spawned,
+     * counting a denial if not.
+     *
+     * @param entity   Custom entity to spawn.
+     * @param location Spawn location.
+     * @param owner    Owner of the new entity. Can be null.
+     * @param index    Spatial index, used for per chunk counts.
+     * @return The cap which denied the spawn, or null if allowed.
+     */
+    Cap check (CustomEntity entity, Location location, Entity owner, SpatialIndex index) {
+
+        Cap cap = null;
+
+        if (exceeds(maxGlobal, total)) {
+            cap = Cap.GLOBAL;
+        } else if (exceeds(maxPerType, typeCounts.getOrDefault(key(entity.getName()), 0))) {
+            cap = Cap.TYPE;
+        } else if (isLimitedOwner(owner) && exceeds(maxPerOwner, ownerCounts.getOrDefault(owner.getUniqueId(), 0))) {
+            cap = Cap.OWNER;
+        } else if (exceeds(maxPerChunk, index.count(location))) {
+            cap = Cap.CHUNK;
+        }
+
+        if (cap != null)
+            denied[cap.ordinal()]++;
+
+        return cap;
+
+    }
+
+
+    /**
+     * Starts counting a newly spawned entity.
+     *
+     * @param entity Active entity.
+     */
+    void track (ActiveEntity entity) {
+
+        spawned++;
+        total++;
+
+        if (entity.getBlueprint() != null)
+            typeCounts.merge(key(entity.getBlueprint().getName()), 1, Integer::sum);
+
+        if (isLimitedOwner(entity.getOwner()))
+            ownerCounts.merge(entity.getOwner().getUniqueId(), 1, Integer::sum);
+
+    }
+
+
+    /**
+     * Stops counting an entity which has died, or is
+     * otherwise no longer tracked.
+     *
+     * @param entity Active entity.
+     */
+    void untrack (ActiveEntity entity) {
+
+        total--;
+
+        if (entity.getBlueprint() != null)
+            decrement(typeCounts, key(entity.getBlueprint().getName()));
+
+        if (isLimitedOwner(entity.getOwner()))
+            decrement(ownerCounts, entity.getOwner().getUniqueId());
+
+    }
+
+
+    private static boolean exceeds (int cap, int count) {
+        return cap > 0 && count >= cap;
+    }
+
+
+    /**
+     * Only entities spawned by other entities count towards
+     * the owner cap. Players are limited by max_spawn_count.
+     */
+    private static boolean isLimitedOwner (Entity owner) {
+        return owner != null && !(owner instanceof Player);
+    }
+
+
+    private static String key (String name) {
+        return name.toLowerCase();
+    }
+
+
+    private static <K> void decrement (Map<K, Integer> counts, K key) {
+        // Drop keys which reach zero, so dead owners don't linger
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public long getSpawned () {
+        return spawned;
+    }
+
+    public long getDenied (Cap cap) {
+        return denied[cap.ordinal()];
+    }
+
+    public long getTotalDenied () {
+
+        long sum = 0;
+
+        for (long count : denied)
+            sum += count;
+
+        return sum;
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package net.atomichive.core.entity;
+
+import net.atomichive.core.entity.abilities.TimedAbilityHandler;
+
+/**
+ * Pairs a timed ability with the active entity it
+ * belongs to, so it can be placed in the ability wheel.
+ */
+class ScheduledAbility {
+
+    private final ActiveEntity entity;
+    private final TimedAbilityHandler handler;
+
+    // Whether this is waiting in the clock's backlog
+    private boolean queued = false;
+
+
+    ScheduledAbility (ActiveEntity entity, TimedAbilityHandler handler) {
+        this.entity = entity;
+        this.handler = handler;
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    ActiveEntity getEntity () {
+        return entity;
+    }
+
+    TimedAbilityHandler getHandler () {
+        return handler;
+    }
+
+    boolean isQueued () {
+        return queued;
+    }
+
+    void setQueued (boolean queued) {
+        this.queued = queued;
+    }
+
+}
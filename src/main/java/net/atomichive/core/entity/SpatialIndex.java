@@ -0,0 +1,589 @@
+package net.atomichive.core.entity;
+
+import net.atomichive.core.nms.NMSUtil;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A per-world spatial hash of active entities and online
+ * players, bucketed into chunk sized cells. Used for ability
+ * targeting, so we don't need to ask Bukkit for every nearby
+ * entity on every ability run.
+ * Positions are read from the NMS entities on every query,
+ * so targeting is always against live positions.
+ * Note: Only intended to be used from the main thread.
+ */
+public class SpatialIndex {
+
+    private static final int CELL_SHIFT = 4; // 16 blocks, the same as a chunk
+
+    private final Map<UUID, Grid> grids = new HashMap<>();
+
+    // Reusable distance buffer for k-nearest queries
+    private double[] distances = new double[8];
+
+
+    /**
+     * Rebuilds the index from scratch. Cells are reused
+     * between rebuilds. Empty cells are kept for reuse, and
+     * only dropped once most of a world's cells are empty, so
+     * steady state rebuilds don't allocate.
+     *
+     * @param entities Active entities.
+     * @param players  Online players.
+     */
+    public void rebuild (Collection<ActiveEntity> entities, Collection<? extends Player> players) {
+
+        // Empty all cells
+        for (Grid grid : grids.values())
+            grid.clear();
+
+        for (ActiveEntity entity : entities)
+            insert(entity.getEntity(), false);
+
+        for (Player player : players)
+            insert(player, true);
+
+        // Drop worlds which are now empty, and compact
+        // grids which are mostly empty cells
+        grids.values().removeIf(Grid::prune);
+
+    }
+
+
+    /**
+     * Adds an entity to the index. Entities added between
+     * rebuilds are kept in the cell they were added to until
+     * the next rebuild.
+     *
+     * @param entity Entity to add.
+     * @param player Whether the entity is a player.
+     */
+    public void insert (Entity entity, boolean player) {
+
+        // Ensure entity is still in the world
+        if (!entity.isValid()) return;
+
+        UUID world = entity.getWorld().getUID();
+        Grid grid = grids.get(world);
+
+        if (grid == null) {
+            grid = new Grid();
+            grids.put(world, grid);
+        }
+
+        net.minecraft.server.v1_12_R1.Entity handle = NMSUtil.getNMSEntity(entity);
+        Cell cell = grid.getOrCreate(cellOf(handle.locX), cellOf(handle.locZ));
+
+        if (player)
+            cell.players.add(entity);
+        else
+            cell.entities.add(entity);
+
+    }
+
+
+    /**
+     * Counts the active entities in the chunk sized cell
+     * containing a location. Entities which have died since
+     * the last rebuild are still counted.
+     *
+     * @param location Location to check.
+     * @return Number of active entities in the cell.
+     */
+    public int count (Location location) {
+
+        Grid grid = grids.get(location.getWorld().getUID());
+
+        if (grid == null) return 0;
+
+        Cell cell = grid.get(cellOf(location.getX()), cellOf(location.getZ()));
+
+        return (cell == null) ? 0 : cell.entities.size;
+
+    }
+
+
+    /**
+     * Visits every entity within a radius of the source,
+     * without collecting them into a list first.
+     * The source itself is never visited. The visitor may
+     * safely trigger further queries (e.g. through damage
+     * events), but entities added while visiting are not
+     * guaranteed to be seen.
+     *
+     * @param source      Source entity.
+     * @param radius      Maximum distance from the source.
+     * @param playersOnly Whether to only include players.
+     * @param visitor     Called for each entity in range.
+     * @return Number of entities visited.
+     */
+    public int forEachNearby (Entity source, double radius, boolean playersOnly, Visitor visitor) {
+
+        Grid grid = grids.get(source.getWorld().getUID());
+
+        if (grid == null) return 0;
+
+        // Copy the source position, as the visitor may run
+        // queries of its own
+        net.minecraft.server.v1_12_R1.Entity handle = NMSUtil.getNMSEntity(source);
+        double x = handle.locX, y = handle.locY, z = handle.locZ;
+        double radiusSquared = radius * radius;
+        int found = 0;
+
+        int minX = cellOf(x - radius);
+        int maxX = cellOf(x + radius);
+        int minZ = cellOf(z - radius);
+        int maxZ = cellOf(z + radius);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+
+                Cell cell = grid.get(cx, cz);
+
+                if (cell == null) continue;
+
+                found += visit(source, handle.world, x, y, z, cell.players, radiusSquared, visitor);
+
+                if (!playersOnly)
+                    found += visit(source, handle.world, x, y, z, cell.entities, radiusSquared, visitor);
+
+            }
+        }
+
+        return found;
+
+    }
+
+
+    /**
+     * Finds all entities within a radius of the source.
+     * The source itself is never included.
+     *
+     * @param source      Source entity.
+     * @param radius      Maximum distance from the source.
+     * @param playersOnly Whether to only include players.
+     * @param out         List to add results to.
+     * @return Number of entities added to the list.
+     */
+    public int getNearby (Entity source, double radius, boolean playersOnly, List<Entity> out) {
+        return forEachNearby(source, radius, playersOnly, (from, target) -> out.add(target));
+    }
+
+
+    /**
+     * Finds up to k entities closest to the source, ordered
+     * from closest to furthest.
+     *
+     * @param source      Source entity.
+     * @param radius      Maximum distance from the source.
+     * @param k           Maximum number of entities to find.
+     * @param playersOnly Whether to only include players.
+     * @param out         List to add results to.
+     * @return Number of entities added to the list.
+     */
+    public int getNearest (Entity source, double radius, int k, boolean playersOnly, List<Entity> out) {
+
+        Grid grid = grids.get(source.getWorld().getUID());
+
+        if (grid == null || k <= 0) return 0;
+
+        if (distances.length < k)
+            distances = new double[Math.max(k, distances.length * 2)];
+
+        net.minecraft.server.v1_12_R1.Entity handle = NMSUtil.getNMSEntity(source);
+        double radiusSquared = radius * radius;
+        int start = out.size();
+        int count = 0;
+
+        int minX = cellOf(handle.locX - radius);
+        int maxX = cellOf(handle.locX + radius);
+        int minZ = cellOf(handle.locZ - radius);
+        int maxZ = cellOf(handle.locZ + radius);
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+
+                Cell cell = grid.get(x, z);
+
+                if (cell == null) continue;
+
+                count = nearest(source, handle, cell.players, radiusSquared, k, start, count, out);
+
+                if (!playersOnly)
+                    count = nearest(source, handle, cell.entities, radiusSquared, k, start, count, out);
+
+            }
+        }
+
+        return count;
+
+    }
+
+
+    /**
+     * Finds the entity closest to the source.
+     *
+     * @param source      Source entity.
+     * @param radius      Maximum distance from the source.
+     * @param playersOnly Whether to only include players.
+     * @return Closest entity, or null if none are in range.
+     */
+    public Entity getClosest (Entity source, double radius, boolean playersOnly) {
+
+        Grid grid = grids.get(source.getWorld().getUID());
+
+        if (grid == null) return null;
+
+        net.minecraft.server.v1_12_R1.Entity handle = NMSUtil.getNMSEntity(source);
+        double lowest = radius * radius;
+        Entity closest = null;
+
+        int minX = cellOf(handle.locX - radius);
+        int maxX = cellOf(handle.locX + radius);
+        int minZ = cellOf(handle.locZ - radius);
+        int maxZ = cellOf(handle.locZ + radius);
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+
+                Cell cell = grid.get(x, z);
+
+                if (cell == null) continue;
+
+                for (int i = 0; i < cell.players.size; i++) {
+                    Entity candidate = cell.players.items[i];
+                    double dist = distanceSquared(source, handle, candidate);
+                    if (dist <= lowest) {
+                        lowest = dist;
+                        closest = candidate;
+                    }
+                }
+
+                if (playersOnly) continue;
+
+                for (int i = 0; i < cell.entities.size; i++) {
+                    Entity candidate = cell.entities.items[i];
+                    double dist = distanceSquared(source, handle, candidate);
+                    if (dist <= lowest) {
+                        lowest = dist;
+                        closest = candidate;
+                    }
+                }
+
+            }
+        }
+
+        return closest;
+
+    }
+
+
+    /**
+     * Visits all entities in a bucket within range.
+     */
+    private static int visit (Entity source, net.minecraft.server.v1_12_R1.World world,
+                              double x, double y, double z,
+                              Bucket candidates, double radiusSquared, Visitor visitor) {
+
+        // Only visit entities present before we started
+        int size = candidates.size;
+        int found = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            Entity candidate = candidates.items[i];
+
+            if (candidate == source || !candidate.isValid()) continue;
+
+            net.minecraft.server.v1_12_R1.Entity handle = NMSUtil.getNMSEntity(candidate);
+
+            // Entities may have changed worlds since the last rebuild
+            if (handle.world != world) continue;
+
+            double dx = handle.locX - x;
+            double dy = handle.locY - y;
+            double dz = handle.locZ - z;
+
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                visitor.visit(source, candidate);
+                found++;
+            }
+
+        }
+
+        return found;
+
+    }
+
+
+    /**
+     * Inserts entities in a bucket into a bounded, sorted
+     * section of the output list.
+     */
+    private int nearest (Entity source, net.minecraft.server.v1_12_R1.Entity handle, Bucket candidates,
+                         double radiusSquared, int k, int start, int count, List<Entity> out) {
+
+        for (int i = 0; i < candidates.size; i++) {
+
+            Entity candidate = candidates.items[i];
+            double dist = distanceSquared(source, handle, candidate);
+
+            if (dist > radiusSquared) continue;
+
+            // Ignore if further than the current furthest
+            if (count == k && dist >= distances[count - 1]) continue;
+
+            // Find insertion point
+            int index = count;
+            while (index > 0 && distances[index - 1] > dist)
+                index--;
+
+            if (count < k) {
+                out.add(null);
+                count++;
+            }
+
+            // Shift further entities along
+            for (int j = count - 1; j > index; j--) {
+                distances[j] = distances[j - 1];
+                out.set(start + j, out.get(start + j - 1));
+            }
+
+            distances[index] = dist;
+            out.set(start + index, candidate);
+
+        }
+
+        return count;
+
+    }
+
+
+    /**
+     * Squared distance between the source and a candidate,
+     * read straight from the NMS entities so no Location
+     * needs to be created. Returns infinity for the source
+     * itself, or for entities which are no longer valid.
+     */
+    private static double distanceSquared (Entity source, net.minecraft.server.v1_12_R1.Entity handle,
+                                           Entity candidate) {
+
+        if (candidate == source || !candidate.isValid())
+            return Double.POSITIVE_INFINITY;
+
+        net.minecraft.server.v1_12_R1.Entity other = NMSUtil.getNMSEntity(candidate);
+
+        // Entities may have changed worlds since the last rebuild
+        if (other.world != handle.world)
+            return Double.POSITIVE_INFINITY;
+
+        double dx = other.locX - handle.locX;
+        double dy = other.locY - handle.locY;
+        double dz = other.locZ - handle.locZ;
+
+        return dx * dx + dy * dy + dz * dz;
+
+    }
+
+
+    private static int cellOf (double coordinate) {
+        return ((int) Math.floor(coordinate)) >> CELL_SHIFT;
+    }
+
+
+    /**
+     * Called for each entity found by a query.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit (Entity source, Entity target);
+    }
+
+
+    /**
+     * A growable array of entities. Cleared buckets keep
+     * their capacity, so steady state rebuilds don't allocate.
+     */
+    static class Bucket {
+
+        private Entity[] items = new Entity[4];
+        private int size = 0;
+
+        void add (Entity entity) {
+            if (size == items.length)
+                items = Arrays.copyOf(items, size * 2);
+            items[size++] = entity;
+        }
+
+        void clear () {
+            Arrays.fill(items, 0, size, null);
+            size = 0;
+        }
+
+    }
+
+
+    /**
+     * A single chunk sized cell.
+     */
+    static class Cell {
+        final Bucket entities = new Bucket();
+        final Bucket players = new Bucket();
+
+        boolean isEmpty () {
+            return entities.size == 0 && players.size == 0;
+        }
+    }
+
+
+    /**
+     * An open addressing hash table of cells for one world.
+     * Keyed by packed cell coordinates, so lookups don't
+     * need to box a key.
+     */
+    static class Grid {
+
+        private long[] keys = new long[64];
+        private Cell[] cells = new Cell[64];
+        private int size = 0;
+
+
+        Cell get (int x, int z) {
+
+            long key = pack(x, z);
+            int mask = cells.length - 1;
+
+            for (int i = mix(key) & mask; cells[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key)
+                    return cells[i];
+            }
+
+            return null;
+
+        }
+
+
+        Cell getOrCreate (int x, int z) {
+
+            Cell cell = get(x, z);
+
+            if (cell != null) return cell;
+
+            // Keep load factor below one half
+            if ((size + 1) * 2 > cells.length)
+                resize(cells.length * 2);
+
+            cell = new Cell();
+            put(pack(x, z), cell);
+            size++;
+
+            return cell;
+
+        }
+
+
+        void clear () {
+            for (Cell cell : cells) {
+                if (cell == null) continue;
+                cell.entities.clear();
+                cell.players.clear();
+            }
+        }
+
+
+        /**
+         * Removes empty cells, but only once at least three
+         * quarters of the cells are empty. Until then, empty
+         * cells are left in place to be reused.
+         *
+         * @return Whether the whole grid is now empty.
+         */
+        boolean prune () {
+
+            int occupied = 0;
+
+            for (Cell cell : cells) {
+                if (cell != null && !cell.isEmpty())
+                    occupied++;
+            }
+
+            if (occupied == 0)
+                return true;
+
+            if (occupied * 4 > size)
+                return false;
+
+            long[] oldKeys = keys;
+            Cell[] oldCells = cells;
+
+            // Shrink to fit, keeping the load factor below one half
+            int capacity = Math.max(64, Integer.highestOneBit(occupied * 4 - 1) << 1);
+
+            keys = new long[capacity];
+            cells = new Cell[capacity];
+            size = 0;
+
+            for (int i = 0; i < oldCells.length; i++) {
+                if (oldCells[i] != null && !oldCells[i].isEmpty()) {
+                    put(oldKeys[i], oldCells[i]);
+                    size++;
+                }
+            }
+
+            return false;
+
+        }
+
+
+        private void resize (int capacity) {
+
+            long[] oldKeys = keys;
+            Cell[] oldCells = cells;
+
+            keys = new long[capacity];
+            cells = new Cell[capacity];
+
+            for (int i = 0; i < oldCells.length; i++) {
+                if (oldCells[i] != null)
+                    put(oldKeys[i], oldCells[i]);
+            }
+
+        }
+
+
+        private void put (long key, Cell cell) {
+
+            int mask = cells.length - 1;
+            int i = mix(key) & mask;
+
+            while (cells[i] != null)
+                i = (i + 1) & mask;
+
+            keys[i] = key;
+            cells[i] = cell;
+
+        }
+
+
+        private static long pack (int x, int z) {
+            return ((long) x << 32) | (z & 0xFFFFFFFFL);
+        }
+
+
+        private static int mix (long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+    }
+
+}
@@ -1,13 +1,7 @@
 package net.atomichive.core.entity.abilities;
 
 import net.atomichive.core.exception.AbilityException;
-import net.atomichive.core.util.Util;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.Player;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 
 /**
  * A basic ability interface.
@@ -23,57 +17,7 @@ public interface Ability {
         CLOSEST_ENTITY,
         NEARBY_PLAYERS,
         NEARBY_ENTITIES,
-        SELF;
-
-
-        /**
-         * Retrieves all matching targets.
-         *
-         * @param source Source entity.
-         * @param target Target type.
-         * @param radius Maximum targeting radius (if applicable).
-         * @return Matching targets.
-         */
-        public static List<Entity> getTargets (Entity source, Target target, int radius) {
-
-            List<Entity> entities = new ArrayList<>();
-
-            if (target.equals(SELF)) {
-                entities.add(source);
-                return entities;
-            }
-
-            // Get nearby entities
-            entities.addAll(getNearby(source, radius));
-
-            // Remove non-players if necessary
-            if (target.equals(NEARBY_PLAYERS) || target.equals(CLOSEST_PLAYER))
-                entities.removeIf((entity) -> !(entity instanceof Player));
-
-            switch (target) {
-                case CLOSEST_ENTITY:
-                case CLOSEST_PLAYER:
-                    return Util.getClosest(source.getLocation(), entities);
-                default:
-                    return entities;
-            }
-
-        }
-
-
-        /**
-         * Returns a collection of all nearby entities.
-         *
-         * @param source Source entity.
-         * @param radius Max radius to search.
-         * @return A collection of all entities within the given radius.
-         */
-        private static Collection<Entity> getNearby (Entity source, int radius) {
-            return source.getWorld().getNearbyEntities(
-                    source.getLocation(),
-                    radius, radius, radius
-            );
-        }
+        SELF
 
     }
 
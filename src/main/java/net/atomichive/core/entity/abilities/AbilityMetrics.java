@@ -0,0 +1,174 @@
+package net.atomichive.core.entity.abilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ability Metrics
+ * Tracks how often each ability runs, how long it takes and
+ * how often it fails, for every custom entity. Handlers are
+ * given their stats once when compiled, so when metrics are
+ * disabled the only cost is a null check per run.
+ */
+public class AbilityMetrics implements AbilityMetricsMXBean {
+
+    private final boolean enabled;
+
+    // Stats keyed by custom entity name, then ability base
+    private final Map<String, Map<String, AbilityStats>> stats = new ConcurrentHashMap<>();
+
+
+    /**
+     * Ability Metrics
+     *
+     * @param enabled Whether metrics should be collected.
+     */
+    public AbilityMetrics (boolean enabled) {
+        this.enabled = enabled;
+    }
+
+
+    /**
+     * Retrieves the stats for an ability base on a particular
+     * custom entity. Stats are kept across entity reloads.
+     *
+     * @param entity Custom entity name.
+     * @param base   Ability base name.
+     * @return Stats, or null if metrics are disabled.
+     */
+    public AbilityStats get (String entity, String base) {
+
+        if (!enabled) return null;
+
+        return stats
+                .computeIfAbsent(entity, (key) -> new ConcurrentHashMap<>())
+                .computeIfAbsent(base, AbilityStats::new);
+
+    }
+
+
+    /**
+     * Aggregates stats by ability base.
+     *
+     * @return Stats for each base, most expensive first.
+     */
+    public List<AbilityStats> getByBase () {
+
+        Map<String, AbilityStats> grouped = new HashMap<>();
+
+        for (Map<String, AbilityStats> entity : stats.values()) {
+            for (AbilityStats ability : entity.values()) {
+                grouped.computeIfAbsent(ability.getName(), AbilityStats::new).add(ability);
+            }
+        }
+
+        return sort(grouped.values());
+
+    }
+
+
+    /**
+     * Aggregates stats by custom entity.
+     *
+     * @return Stats for each custom entity, most expensive first.
+     */
+    public List<AbilityStats> getByEntity () {
+
+        List<AbilityStats> grouped = new ArrayList<>();
+
+        for (Map.Entry<String, Map<String, AbilityStats>> entity : stats.entrySet()) {
+
+            AbilityStats total = new AbilityStats(entity.getKey());
+
+            for (AbilityStats ability : entity.getValue().values())
+                total.add(ability);
+
+            grouped.add(total);
+
+        }
+
+        return sort(grouped);
+
+    }
+
+
+    private static List<AbilityStats> sort (Iterable<AbilityStats> stats) {
+
+        List<AbilityStats> sorted = new ArrayList<>();
+        stats.forEach(sorted::add);
+        sorted.sort(Comparator.comparingLong((AbilityStats s) -> s.getTime().getSum()).reversed());
+
+        return sorted;
+
+    }
+
+
+    private static Map<String, Long> toMap (List<AbilityStats> stats, ToLongFunction<AbilityStats> value) {
+
+        Map<String, Long> map = new LinkedHashMap<>();
+
+        for (AbilityStats ability : stats)
+            map.put(ability.getName(), value.applyAsLong(ability));
+
+        return map;
+
+    }
+
+
+    /*
+        JMX.
+     */
+
+    @Override
+    public boolean isEnabled () {
+        return enabled;
+    }
+
+    @Override
+    public Map<String, Long> getExecutionsByBase () {
+        return toMap(getByBase(), AbilityStats::getExecutions);
+    }
+
+    @Override
+    public Map<String, Long> getExecutionsByEntity () {
+        return toMap(getByEntity(), AbilityStats::getExecutions);
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByBase () {
+        return toMap(getByBase(), AbilityStats::getFailures);
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByEntity () {
+        return toMap(getByEntity(), AbilityStats::getFailures);
+    }
+
+    @Override
+    public Map<String, Long> getTotalMicrosByBase () {
+        return toMap(getByBase(), (s) -> s.getTime().getSum() / 1000);
+    }
+
+    @Override
+    public Map<String, Long> getTotalMicrosByEntity () {
+        return toMap(getByEntity(), (s) -> s.getTime().getSum() / 1000);
+    }
+
+    @Override
+    public Map<String, Long> getP99MicrosByBase () {
+        return toMap(getByBase(), (s) -> s.getTime().getPercentile(99) / 1000);
+    }
+
+    @Override
+    public void reset () {
+        for (Map<String, AbilityStats> entity : stats.values())
+            entity.values().forEach(AbilityStats::reset);
+    }
+
+}
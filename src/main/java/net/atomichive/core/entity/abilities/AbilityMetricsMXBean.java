@@ -0,0 +1,29 @@
+package net.atomichive.core.entity.abilities;
+
+import java.util.Map;
+
+/**
+ * JMX view of ability metrics. Maps are keyed by ability
+ * base or custom entity name.
+ */
+public interface AbilityMetricsMXBean {
+
+    boolean isEnabled ();
+
+    Map<String, Long> getExecutionsByBase ();
+
+    Map<String, Long> getExecutionsByEntity ();
+
+    Map<String, Long> getFailuresByBase ();
+
+    Map<String, Long> getFailuresByEntity ();
+
+    Map<String, Long> getTotalMicrosByBase ();
+
+    Map<String, Long> getTotalMicrosByEntity ();
+
+    Map<String, Long> getP99MicrosByBase ();
+
+    void reset ();
+
+}
@@ -0,0 +1,96 @@
+package net.atomichive.core.entity.abilities;
+
+import net.atomichive.core.util.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ability Stats
+ * Execution counters for a single ability base, or for
+ * a group of abilities when aggregated.
+ */
+public class AbilityStats {
+
+    private final String name;
+    private final Histogram time = new Histogram(); // Nanoseconds per run
+    private final AtomicLong targets = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+
+    /**
+     * Ability Stats
+     *
+     * @param name Name of the ability base or group.
+     */
+    public AbilityStats (String name) {
+        this.name = name;
+    }
+
+
+    /**
+     * Records a single run of an ability handler.
+     *
+     * @param nanos   Time taken to select targets and execute.
+     * @param targets Number of targets the ability executed on.
+     */
+    void record (long nanos, int targets) {
+        time.record(nanos);
+        this.targets.addAndGet(targets);
+    }
+
+
+    /**
+     * Records an ability which threw while executing.
+     */
+    void fail () {
+        failures.incrementAndGet();
+    }
+
+
+    /**
+     * Adds the counters of another set of stats to this one.
+     *
+     * @param other Stats to merge.
+     */
+    void add (AbilityStats other) {
+        time.add(other.time);
+        targets.addAndGet(other.getTargets());
+        failures.addAndGet(other.getFailures());
+    }
+
+
+    /**
+     * Clears all counters.
+     */
+    void reset () {
+        time.reset();
+        targets.set(0);
+        failures.set(0);
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public String getName () {
+        return name;
+    }
+
+    public Histogram getTime () {
+        return time;
+    }
+
+    public long getExecutions () {
+        return time.getCount();
+    }
+
+    public long getTargets () {
+        return targets.get();
+    }
+
+    public long getFailures () {
+        return failures.get();
+    }
+
+}
@@ -1,21 +1,22 @@
 package net.atomichive.core.entity.abilities;
 
 import net.atomichive.core.Main;
+import net.atomichive.core.entity.SpatialIndex;
 import net.atomichive.core.exception.AbilityException;
 import org.bukkit.entity.Entity;
 
-import java.util.List;
 import java.util.logging.Level;
 
 /**
  * Wraps around an ability to add target support.
  */
-public class GenericAbilityHandler {
+public class GenericAbilityHandler implements SpatialIndex.Visitor {
 
 
     private final Ability ability;
     private final Ability.Target target;
     private final int radius;
+    private AbilityStats stats; // Null if metrics are disabled
 
 
     /**
@@ -50,18 +51,16 @@ public class GenericAbilityHandler {
      */
     public void run (Entity source) {
 
-        // Retrieve targets
-        List<Entity> targets = Ability.Target.getTargets(source, target, radius);
-
-        // Iterate over targets, execute ability
-        for (Entity target : targets) {
-            try {
-                ability.execute(source, target);
-            } catch (AbilityException e) {
-                Main.getInstance().log(Level.SEVERE, e.getMessage());
-            }
+        // Skip timing entirely when metrics are disabled
+        if (stats == null) {
+            select(source);
+            return;
         }
 
+        long start = System.nanoTime();
+        int targets = select(source);
+        stats.record(System.nanoTime() - start, targets);
+
     }
 
 
@@ -75,21 +74,70 @@ public class GenericAbilityHandler {
      */
     public void run (Entity source, Entity target) {
 
+        // Check if target has been specified
+        if (this.target != null && this.target != Ability.Target.SELF) {
+            run(source);
+            return;
+        }
+
+        long start = (stats == null) ? 0 : System.nanoTime();
+
+        if (this.target == null)
+            visit(source, target);
+        else
+            visit(target, source);
+
+        if (stats != null)
+            stats.record(System.nanoTime() - start, 1);
+
+    }
+
+
+    /**
+     * Finds applicable targets, streaming them straight
+     * into the ability rather than collecting them into
+     * a list first.
+     *
+     * @param source Source entity.
+     * @return Number of targets.
+     */
+    private int select (Entity source) {
+
+        SpatialIndex index = Main.getInstance().getEntityManager().getSpatialIndex();
+
+        switch (target) {
+            case SELF:
+                visit(source, source);
+                return 1;
+            case CLOSEST_ENTITY:
+            case CLOSEST_PLAYER:
+                Entity closest = index.getClosest(source, radius, target == Ability.Target.CLOSEST_PLAYER);
+                if (closest == null)
+                    return 0;
+                visit(source, closest);
+                return 1;
+            default:
+                return index.forEachNearby(source, radius, target == Ability.Target.NEARBY_PLAYERS, this);
+        }
+
+    }
+
+
+    /**
+     * Executes the ability against a single target.
+     *
+     * @param source Source entity.
+     * @param target Target entity.
+     */
+    @Override
+    public void visit (Entity source, Entity target) {
         try {
-            // Check if target has been specified
-            if (this.target == null) {
-                ability.execute(source, target);
-                return;
-            } else if (this.target == Ability.Target.SELF) {
-                ability.execute(target, source);
-                return;
-            }
+            ability.execute(source, target);
         } catch (AbilityException e) {
+            if (stats != null)
+                stats.fail();
             Main.getInstance().log(Level.SEVERE, e.getMessage());
         }
-
-        run(source);
-
     }
 
 
@@ -101,4 +149,12 @@ public class GenericAbilityHandler {
         return target;
     }
 
+    public AbilityStats getStats () {
+        return stats;
+    }
+
+    public void setStats (AbilityStats stats) {
+        this.stats = stats;
+    }
+
 }
@@ -1,15 +1,13 @@
 package net.atomichive.core.entity.abilities;
 
-import org.bukkit.entity.Entity;
-
 /**
  * Timed Ability Handler
  * Wraps around a regular ability for time
- * based execution.
+ * based execution. Scheduling is handled by the
+ * entity clock's timing wheel.
  */
 public class TimedAbilityHandler extends GenericAbilityHandler {
 
-    private int tick = 0;
     private final int maxTicks;
 
 
@@ -34,25 +32,15 @@ public class TimedAbilityHandler extends GenericAbilityHandler {
      */
     public TimedAbilityHandler (Ability ability, Ability.Target target, int radius, int maxTicks) {
         super(ability, target, radius);
-        this.maxTicks = maxTicks;
+        this.maxTicks = Math.max(1, maxTicks);
     }
 
 
     /**
-     * Tick
-     *
-     * @param source Ability source
+     * @return Clock cycles between each execution.
      */
-    public void tick (Entity source) {
-
-        tick++;
-
-        if (tick >= maxTicks) {
-            tick = 0;
-            super.run(source);
-        }
-
+    public int getMaxTicks () {
+        return maxTicks;
     }
 
-
 }
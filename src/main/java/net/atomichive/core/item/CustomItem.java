@@ -2,6 +2,7 @@ package net.atomichive.core.item;
 
 import com.google.gson.annotations.SerializedName;
 import net.atomichive.core.exception.CustomObjectException;
+import net.atomichive.core.nms.ItemTags;
 import net.atomichive.core.util.Util;
 import org.apache.commons.lang.WordUtils;
 import org.bukkit.ChatColor;
@@ -33,14 +34,29 @@ public class CustomItem {
     @SerializedName("display_name")
     private String displayName;
 
+    // Fully decorated item stack, built once at load
+    private transient ItemStack prototype;
+
 
     /**
-     * Constructs an item stack from this custom item.
-     *
-     * @param amount Number of items in stack.
-     * @return An item stack of this custom item.
+     * Validates this custom item and builds its prototype
+     * item stack, so handing out items does not need to parse
+     * materials, lore or enchantments every time. Should be
+     * called once, whenever the item is loaded.
      */
-    public ItemStack getItemStack (int amount) throws CustomObjectException {
+    public void compile () throws CustomObjectException {
+
+        // Ensure a name and material were defined
+        if (name == null) {
+            throw new CustomObjectException("A custom item was defined without a name.");
+        }
+
+        if (this.material == null) {
+            throw new CustomObjectException(String.format(
+                    "No material defined in custom item '%s'.",
+                    name
+            ));
+        }
 
         Material material;
 
@@ -56,10 +72,32 @@ public class CustomItem {
         }
 
         // Create item stack and apply meta data
-        ItemStack stack = new ItemStack(material, amount);
+        ItemStack stack = new ItemStack(material, 1);
         setStackMeta(stack);
         addEnchantments(stack);
 
+        // Lore is just for show, checks read the tag
+        this.prototype = ItemTags.write(stack, name, level);
+
+    }
+
+
+    /**
+     * Constructs an item stack from this custom item.
+     *
+     * @param amount Number of items in stack.
+     * @return An item stack of this custom item.
+     */
+    public ItemStack getItemStack (int amount) throws CustomObjectException {
+
+        // Ensure item has been compiled
+        if (prototype == null) {
+            compile();
+        }
+
+        ItemStack stack = prototype.clone();
+        stack.setAmount(amount);
+
         return stack;
 
     }
@@ -87,9 +125,11 @@ public class CustomItem {
         List<String> lore = new ArrayList<>();
 
         // Description
-        String[] lines = WordUtils.wrap(this.lore, 30).split("\n");
-        for (String line : lines) {
-            lore.add(ChatColor.DARK_GRAY + line);
+        if (this.lore != null) {
+            String[] lines = WordUtils.wrap(this.lore, 30).split("\n");
+            for (String line : lines) {
+                lore.add(ChatColor.DARK_GRAY + line);
+            }
         }
 
         // Rarity
@@ -268,4 +308,8 @@ public class CustomItem {
         return level;
     }
 
+    ItemStack getPrototype () {
+        return prototype;
+    }
+
 }
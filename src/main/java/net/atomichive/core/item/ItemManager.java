@@ -5,6 +5,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.stream.MalformedJsonException;
 import net.atomichive.core.JsonManager;
 import net.atomichive.core.exception.CustomObjectException;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -53,6 +54,10 @@ public class ItemManager extends JsonManager {
         Gson gson = new Gson();
         CustomItem item = gson.fromJson(element, CustomItem.class);
 
+        // Build the item now, so that bad definitions fail once
+        // at load rather than every time it is given out.
+        item.compile();
+
         // Ensure item has not already been defined
         if (contains(item)) {
             throw new CustomObjectException(String.format(
@@ -107,6 +112,46 @@ public class ItemManager extends JsonManager {
     }
 
 
+    /**
+     * Identifies the custom item an untagged stack was made
+     * from, by its material and display name. Used to migrate
+     * items made before custom items were tagged.
+     *
+     * @param stack Item stack to identify.
+     * @return Matching custom item, or null if there is no
+     * match or more than one.
+     */
+    public CustomItem identify (ItemStack stack) {
+
+        if (!stack.hasItemMeta() || !stack.getItemMeta().hasDisplayName())
+            return null;
+
+        String displayName = stack.getItemMeta().getDisplayName();
+        CustomItem match = null;
+
+        for (CustomItem item : customItems) {
+
+            ItemStack prototype = item.getPrototype();
+
+            if (prototype == null || prototype.getType() != stack.getType())
+                continue;
+
+            if (!displayName.equals(prototype.getItemMeta().getDisplayName()))
+                continue;
+
+            // Ambiguous, so don't guess
+            if (match != null)
+                return null;
+
+            match = item;
+
+        }
+
+        return match;
+
+    }
+
+
     /*
         Getters and setters.
      */
@@ -1,33 +1,185 @@
 package net.atomichive.core.item;
 
+import net.atomichive.core.Main;
+import net.atomichive.core.nms.ItemTags;
 import net.atomichive.core.util.Util;
+import net.minecraft.server.v1_12_R1.NBTTagCompound;
 import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.List;
+import java.lang.ref.WeakReference;
 
 /**
  * A collection of custom item related utilities.
+ * Custom items carry their name and minimum level in an NBT
+ * compound (see ItemTags). Lore is only for display, and is
+ * only read for items made before the compound existed, until
+ * they are migrated.
  */
 public class ItemUtil {
 
+    private static final String LEVEL_PREFIX = ChatColor.RED + "Level ";
+
+    // Recently read levels, keyed by the identity of the item's
+    // root tag. Bukkit replaces the root tag whenever item meta
+    // is set, so a changed item is never a stale hit.
+    private static final int CACHE_SIZE = 64;
+
+    @SuppressWarnings("unchecked")
+    private static final WeakReference<NBTTagCompound>[] cacheTags = new WeakReference[CACHE_SIZE];
+    private static final int[] cacheLevels = new int[CACHE_SIZE];
+
+
     /**
      * Retrieves this items level, or -1 if none are applied.
+     * Note: Only call from the main thread.
      *
      * @param stack Item stack to retrieve level from.
      * @return Items minimum level.
      */
     public static int getLevel (ItemStack stack) {
 
+        NBTTagCompound tag = ItemTags.getTag(stack);
+
+        // Items without a tag can't have a level
+        if (tag == null) return -1;
+
+        // Copies of plain stacks would never hit
+        if (!ItemTags.isBacked(stack))
+            return readLevel(stack, tag);
+
+        int slot = System.identityHashCode(tag) & (CACHE_SIZE - 1);
+        WeakReference<NBTTagCompound> cached = cacheTags[slot];
+
+        if (cached != null && cached.get() == tag)
+            return cacheLevels[slot];
+
+        int level = readLevel(stack, tag);
+
+        cacheTags[slot] = new WeakReference<>(tag);
+        cacheLevels[slot] = level;
+
+        return level;
+
+    }
+
+
+    /**
+     * Retrieves the name of the custom item this stack was
+     * made from.
+     *
+     * @param stack Item stack.
+     * @return Custom item name, or null if unknown.
+     */
+    public static String getIdentifier (ItemStack stack) {
+
+        NBTTagCompound atomic = ItemTags.getAtomic(ItemTags.getTag(stack));
+
+        return (atomic == null) ? null : ItemTags.getIdentifier(atomic);
+
+    }
+
+
+    /**
+     * Tags any old, lore-only custom items a player is carrying,
+     * so they stack with newly made copies. Items which can't
+     * be matched to exactly one custom item are left alone.
+     * Note: Only call from the main thread.
+     *
+     * @param player Player whose items should be migrated.
+     * @return Number of stacks migrated.
+     */
+    public static int migrate (Player player) {
+
+        int migrated = migrate(player.getInventory()) + migrate(player.getEnderChest());
+
+        // Let the client know the items have changed
+        if (migrated > 0)
+            player.updateInventory();
+
+        return migrated;
+
+    }
+
+
+    /**
+     * Tags any old, lore-only custom items in an inventory.
+     *
+     * @param inventory Inventory to migrate.
+     * @return Number of stacks migrated.
+     */
+    private static int migrate (Inventory inventory) {
+
+        ItemManager manager = Main.getInstance().getItemManager();
+        ItemStack[] contents = inventory.getContents();
+        int migrated = 0;
+
+        for (int i = 0; i < contents.length; i++) {
+
+            ItemStack stack = contents[i];
+
+            // Custom items always have meta
+            if (stack == null || !stack.hasItemMeta())
+                continue;
+
+            if (ItemTags.getAtomic(ItemTags.getTag(stack)) != null)
+                continue;
+
+            CustomItem item = manager.identify(stack);
+
+            if (item == null || getLoreLevel(stack) != item.getLevel())
+                continue;
+
+            inventory.setItem(i, ItemTags.write(stack, item.getName(), item.getLevel()));
+            migrated++;
+
+        }
+
+        return migrated;
+
+    }
+
+
+    /**
+     * Reads the level from the atomic compound, falling back
+     * to lore for items which haven't been migrated yet.
+     *
+     * @param stack Item stack.
+     * @param tag   Root tag of the item stack.
+     * @return Items minimum level.
+     */
+    private static int readLevel (ItemStack stack, NBTTagCompound tag) {
+
+        NBTTagCompound atomic = ItemTags.getAtomic(tag);
+
+        if (atomic != null)
+            return ItemTags.getLevel(atomic);
+
+        return getLoreLevel(stack);
+
+    }
+
+
+    /**
+     * Retrieves the level from an item's lore.
+     *
+     * @param stack Item stack to retrieve level from.
+     * @return Items minimum level, or -1 if none.
+     */
+    private static int getLoreLevel (ItemStack stack) {
+
         if (!stack.hasItemMeta()) return -1;
-        if (!stack.getItemMeta().hasLore()) return -1;
 
-        // Get lore
-        List<String> lore = stack.getItemMeta().getLore();
+        ItemMeta meta = stack.getItemMeta();
+
+        if (!meta.hasLore()) return -1;
 
-        for (String str : lore) {
-            if (str.startsWith(ChatColor.RED + "Level ")) {
-                String level = str.replace(ChatColor.RED + "Level ", "");
+        for (String str : meta.getLore()) {
+            if (str.startsWith(LEVEL_PREFIX)) {
+                String level = str.substring(LEVEL_PREFIX.length());
                 if (Util.isInteger(level)) {
                     return Integer.parseInt(level);
                 }
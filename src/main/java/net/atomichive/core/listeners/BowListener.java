@@ -27,6 +27,8 @@ public class BowListener extends BaseListener implements Listener {
             AtomicPlayer player = Main.getInstance().getPlayerManager().get((Player) entity);
             ItemStack bow = event.getBow();
 
+            if (player == null) return;
+
             // Ensure player is high enough level
             if (player.getLevel() < ItemUtil.getLevel(bow)) {
                 event.setCancelled(true);
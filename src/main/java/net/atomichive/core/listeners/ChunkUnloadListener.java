@@ -0,0 +1,30 @@
+package net.atomichive.core.listeners;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.entity.EntityManager;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * Stops tracking active entities whose chunk is
+ * being unloaded.
+ */
+public class ChunkUnloadListener extends BaseListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    void onChunkUnload (ChunkUnloadEvent event) {
+
+        EntityManager manager = Main.getInstance().getEntityManager();
+
+        // Nothing to do if no custom entities are alive
+        if (manager.getActiveEntities().isEmpty()) return;
+
+        for (Entity entity : event.getChunk().getEntities())
+            manager.reap(entity);
+
+    }
+
+}
@@ -1,8 +1,7 @@
 package net.atomichive.core.listeners;
 
 import net.atomichive.core.Main;
-import net.atomichive.core.player.AtomicPlayer;
-import org.bukkit.Bukkit;
+import net.atomichive.core.player.CommandSpies;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -19,30 +18,21 @@ public class CommandListener extends BaseListener implements Listener {
     @EventHandler
     void onCommand (PlayerCommandPreprocessEvent event) {
 
+        CommandSpies spies = Main.getInstance().getPlayerManager().getCommandSpies();
+
+        // Most of the time, no one is listening
+        if (spies.getSubscriberCount() == 0)
+            return;
+
         // Get player and command
         Player sender = event.getPlayer();
         String command = event.getMessage();
 
         // Alert users with appropriate perms
-        for (AtomicPlayer player : Main.getInstance().getPlayerManager().getAll()) {
-
-            // Ensure player is not sender
-            if (player.is(sender))
-                continue;
-
-            // Whether to send the message or not
-            boolean send = player.getVerbosity() == 1 && !sender.hasPermission("atomic-core.staff");
-            send = send || player.getVerbosity() == 2;
-
-            if (send) {
-                Player p = Bukkit.getPlayer(player.getIdentifier());
-                p.sendMessage(String.format(
-                        "%s: %s",
-                        ChatColor.GRAY + sender.getDisplayName(),
-                        command
-                ));
-            }
-        }
+        spies.broadcast(
+                sender,
+                String.format("%s: %s", ChatColor.GRAY + sender.getDisplayName(), command)
+        );
 
     }
 
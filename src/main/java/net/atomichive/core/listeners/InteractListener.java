@@ -67,7 +67,7 @@ public class InteractListener extends BaseListener implements Listener {
         ItemStack stack = event.getItem();
         AtomicPlayer player = Main.getInstance().getPlayerManager().get(event.getPlayer());
 
-        if (stack == null) return;
+        if (stack == null || player == null) return;
 
         if (stack.getType().equals(Material.COMPASS)) {
             Menus.MAIN.getMenu().open(event.getPlayer());
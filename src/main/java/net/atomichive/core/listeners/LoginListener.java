@@ -1,6 +1,7 @@
 package net.atomichive.core.listeners;
 
 import net.atomichive.core.Main;
+import net.atomichive.core.item.ItemUtil;
 import net.atomichive.core.player.AtomicPlayer;
 import net.atomichive.core.util.Util;
 import net.atomichive.core.util.tasks.BroadcastTask;
@@ -10,6 +11,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerLoginEvent;
 
 import java.util.logging.Level;
@@ -20,6 +23,32 @@ import java.util.logging.Level;
 public final class LoginListener extends BaseListener implements Listener {
 
 
+    /**
+     * Loads the player's profile on the async pre-login
+     * thread, so logging in doesn't block the main thread
+     * on the database.
+     *
+     * @param event Async player pre-login event object.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    void onPreLogin (AsyncPlayerPreLoginEvent event) {
+
+        // Don't load players who have already been denied
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        boolean loaded = Main.getInstance().getPlayerManager()
+                .prefetch(event.getUniqueId(), event.getName());
+
+        if (!loaded) {
+            event.disallow(
+                    AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    "Could not load your player data. Please try again shortly."
+            );
+        }
+
+    }
+
+
     /**
      * An event which occurs whenever a player logs in.
      *
@@ -32,6 +61,15 @@ public final class LoginListener extends BaseListener implements Listener {
         Player player = event.getPlayer();
         AtomicPlayer atomic = Main.getInstance().getPlayerManager().addPlayer(player);
 
+        // Ensure player data could be loaded
+        if (atomic == null) {
+            event.disallow(
+                    PlayerLoginEvent.Result.KICK_OTHER,
+                    "Could not load your player data. Please try again shortly."
+            );
+            return;
+        }
+
         handleUsername(atomic, player);
 
         atomic.incrementLoginCount();
@@ -72,6 +110,43 @@ public final class LoginListener extends BaseListener implements Listener {
     }
 
 
+    /**
+     * Migrates old custom items once the player's inventory
+     * has been loaded, which is only after login.
+     *
+     * @param event Player join event object.
+     */
+    @EventHandler
+    void onJoin (PlayerJoinEvent event) {
+
+        int migrated = ItemUtil.migrate(event.getPlayer());
+
+        if (migrated > 0) {
+            Main.getInstance().log(Level.INFO, String.format(
+                    "Migrated %d old custom item stacks for %s.",
+                    migrated,
+                    event.getPlayer().getName()
+            ));
+        }
+
+    }
+
+
+    /**
+     * Stops tracking players whose login was denied after
+     * they were loaded, as they will never fire a quit event.
+     *
+     * @param event Player login event object.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    void onLoginResult (PlayerLoginEvent event) {
+
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED)
+            Main.getInstance().getPlayerManager().removePlayer(event.getPlayer());
+
+    }
+
+
     /**
      * Updates the bukkit players custom display name,
      * and updates the last known alias in case it has changed.
@@ -0,0 +1,133 @@
+package net.atomichive.core.listeners;
+
+import org.bukkit.ChatColor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nametag Cache
+ * Custom entity names contain a <COLOR> placeholder, which
+ * is filled in per viewer depending on how the entity's
+ * level compares to their own. Every name is rendered once
+ * per colour band, so the packet path only does a lookup.
+ * A custom entity's name already includes its level, so the
+ * name itself is the key.
+ * Note: Safe to use from any thread.
+ */
+public class NametagCache {
+
+    public static final String PLACEHOLDER = "<COLOR>";
+
+    // Names are only dropped if this many are somehow cached
+    private static final int MAX_SIZE = 4096;
+
+    private final Map<String, String[]> names = new ConcurrentHashMap<>();
+
+
+    /**
+     * Colour bands, from least to most dangerous.
+     */
+    public enum Band {
+
+        TRIVIAL   (ChatColor.GRAY),
+        EVEN      (ChatColor.GREEN),
+        HARD      (ChatColor.YELLOW),
+        DANGEROUS (ChatColor.RED);
+
+        private final ChatColor color;
+
+        Band (ChatColor color) {
+            this.color = color;
+        }
+
+        public ChatColor getColor () {
+            return color;
+        }
+
+
+        /**
+         * Determines the band of an entity for a viewer.
+         *
+         * @param playerLevel Level of the viewing player.
+         * @param entityLevel Level of the entity.
+         * @return Colour band.
+         */
+        public static Band of (int playerLevel, int entityLevel) {
+
+            long difference = (long) entityLevel - playerLevel;
+
+            if (difference <= -5) {
+                return TRIVIAL;
+            } else if (difference < 2) {
+                return EVEN;
+            } else if (difference < 6) {
+                return HARD;
+            } else {
+                return DANGEROUS;
+            }
+
+        }
+
+    }
+
+
+    /**
+     * Renders a name for a colour band.
+     *
+     * @param name Custom name, with or without a placeholder.
+     * @param band Colour band.
+     * @return Rendered name.
+     */
+    public String render (String name, Band band) {
+
+        String[] rendered = names.get(name);
+
+        if (rendered == null) {
+
+            if (names.size() >= MAX_SIZE)
+                names.clear();
+
+            rendered = names.computeIfAbsent(name, NametagCache::renderAll);
+
+        }
+
+        return rendered[band.ordinal()];
+
+    }
+
+
+    /**
+     * Renders a name with the placeholder removed, for when
+     * the entity's level is not known.
+     *
+     * @param name Custom name.
+     * @return Name without a placeholder.
+     */
+    public String strip (String name) {
+        return name.replace(PLACEHOLDER, "");
+    }
+
+
+    private static String[] renderAll (String name) {
+
+        Band[] bands = Band.values();
+        String[] rendered = new String[bands.length];
+
+        for (Band band : bands)
+            rendered[band.ordinal()] = name.replace(PLACEHOLDER, band.getColor().toString());
+
+        return rendered;
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public int size () {
+        return names.size();
+    }
+
+}
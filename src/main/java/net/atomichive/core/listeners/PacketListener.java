@@ -4,29 +4,51 @@ import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolManager;
 import com.comphenix.protocol.events.ListenerPriority;
 import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
-import com.comphenix.protocol.reflect.StructureModifier;
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
 import net.atomichive.core.Main;
-import net.atomichive.core.entity.ActiveEntity;
-import net.atomichive.core.player.AtomicPlayer;
-import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Listens to and modifies packets.
+ * Custom entity names are rendered for each viewer, by
+ * rewriting the name in a copy of the outgoing packet. The
+ * entity itself is never modified.
  */
 public class PacketListener {
 
+    // Data watcher index of an entity's custom name
+    private static final int CUSTOM_NAME_INDEX = 2;
+
+    private static final WrappedDataWatcher.WrappedDataWatcherObject CUSTOM_NAME =
+            new WrappedDataWatcher.WrappedDataWatcherObject(
+                    CUSTOM_NAME_INDEX,
+                    WrappedDataWatcher.Registry.get(String.class)
+            );
+
+    private final NametagCache nametags = new NametagCache();
+
+
     public PacketListener () {
 
         // Get packet manager
         ProtocolManager manager = Main.getInstance().getProtocolManager();
         Main plugin = Main.getInstance();
 
-        manager.addPacketListener(new PacketAdapter(plugin, ListenerPriority.NORMAL, PacketType.Play.Server.SPAWN_ENTITY_LIVING) {
+        manager.addPacketListener(new PacketAdapter(
+                plugin,
+                ListenerPriority.NORMAL,
+                PacketType.Play.Server.SPAWN_ENTITY_LIVING,
+                PacketType.Play.Server.ENTITY_METADATA
+        ) {
 
             /**
-             * Fired whenever a spawn living entity packet
-             * is sent.
+             * Fired whenever a spawn living entity or entity
+             * metadata packet is sent.
              *
              * @param event Packet event.
              */
@@ -34,44 +56,123 @@ public class PacketListener {
             public void onPacketSending (PacketEvent event) {
 
                 if (event.getPacketType() == PacketType.Play.Server.SPAWN_ENTITY_LIVING) {
+                    rewriteSpawn(event);
+                } else if (event.getPacketType() == PacketType.Play.Server.ENTITY_METADATA) {
+                    rewriteMetadata(event);
+                }
 
-                    Main plugin = Main.getInstance();
+            }
+        });
 
-                    // Get entity
-                    StructureModifier<Entity> components = event.getPacket().getEntityModifier(event);
-                    Entity entity = components.read(0);
+    }
 
-                    AtomicPlayer player = plugin.getPlayerManager().get(event.getPlayer());
-                    ActiveEntity active = plugin.getEntityManager().getActiveEntity(entity);
 
-                    if (active == null) {
-                        return;
-                    }
+    /**
+     * Renders the custom name in a spawn living entity packet.
+     *
+     * @param event Packet event.
+     */
+    private void rewriteSpawn (PacketEvent event) {
 
-                    entity.setCustomName(entity.getCustomName() + " " + player.getDisplayName() + " " + active.getLevel());
+        PacketContainer packet = event.getPacket();
+        WrappedDataWatcher watcher = packet.getDataWatcherModifier().read(0);
 
-                    components.write(0, entity);
+        // Not every living entity has a custom name
+        if (watcher == null || !watcher.hasIndex(CUSTOM_NAME_INDEX))
+            return;
 
-                }
+        Object value = watcher.getObject(CUSTOM_NAME_INDEX);
 
-//                ChatColor color;
-//
-//                if (player.getLevel() < active.getLevel() - 5) {
-//                    color = ChatColor.GRAY;
-//                } else if (player.getLevel() < active.getLevel() + 2) {
-//                    color = ChatColor.GREEN;
-//                } else if (player.getLevel() < active.getLevel() + 6) {
-//                    color = ChatColor.YELLOW;
-//                } else {
-//                    color = ChatColor.RED;
-//                }
-//
-//                entity.setCustomName(entity.getCustomName().replaceFirst("<COLOR>", color.toString()));
-//
-//                components.write(0, entity);
+        if (!(value instanceof String))
+            return;
 
-            }
-        });
+        String name = render(event, packet.getIntegers().read(0), (String) value);
+
+        if (name == null)
+            return;
+
+        // The watcher belongs to the real entity, so rewrite a copy
+        WrappedDataWatcher copy = watcher.deepClone();
+        copy.setObject(CUSTOM_NAME, name);
+
+        PacketContainer clone = packet.shallowClone();
+        clone.getDataWatcherModifier().write(0, copy);
+        event.setPacket(clone);
+
+    }
+
+
+    /**
+     * Renders the custom name in an entity metadata packet.
+     *
+     * @param event Packet event.
+     */
+    private void rewriteMetadata (PacketEvent event) {
+
+        PacketContainer packet = event.getPacket();
+        List<WrappedWatchableObject> objects = packet.getWatchableCollectionModifier().read(0);
+
+        if (objects == null)
+            return;
+
+        for (int i = 0; i < objects.size(); i++) {
+
+            WrappedWatchableObject object = objects.get(i);
+
+            if (object.getIndex() != CUSTOM_NAME_INDEX || !(object.getValue() instanceof String))
+                continue;
+
+            String name = render(event, packet.getIntegers().read(0), (String) object.getValue());
+
+            if (name == null)
+                return;
+
+            // The same packet may be sent to every viewer,
+            // so rewrite a copy of the list
+            List<WrappedWatchableObject> copy = new ArrayList<>(objects);
+            copy.set(i, new WrappedWatchableObject(CUSTOM_NAME, name));
+
+            PacketContainer clone = packet.shallowClone();
+            clone.getWatchableCollectionModifier().write(0, copy);
+            event.setPacket(clone);
+
+            return;
+
+        }
+
+    }
+
+
+    /**
+     * Renders a custom name for the receiving player.
+     *
+     * @param event    Packet event.
+     * @param entityId Entity id the packet is about.
+     * @param name     Custom name of the entity.
+     * @return Rendered name, or null if it should be left as is.
+     */
+    private String render (PacketEvent event, int entityId, String name) {
+
+        // Only custom entities have a placeholder
+        if (!name.contains(NametagCache.PLACEHOLDER))
+            return null;
+
+        // Read from the published snapshot, as the entity and
+        // player managers belong to the main thread
+        PacketSnapshot snapshot = Main.getInstance()
+                .getPacketSnapshots()
+                .getSnapshot();
+
+        PacketSnapshot.EntityView entity = snapshot.getEntity(entityId);
+        PacketSnapshot.PlayerView player = snapshot.getPlayer(event.getPlayer().getUniqueId());
+
+        // Never show the raw placeholder
+        if (entity == null || player == null)
+            return nametags.strip(name);
+
+        NametagCache.Band band = NametagCache.Band.of(player.getLevel(), entity.getLevel());
+
+        return nametags.render(name, band);
 
     }
 
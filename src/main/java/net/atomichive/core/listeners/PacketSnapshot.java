@@ -0,0 +1,135 @@
+package net.atomichive.core.listeners;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Packet Snapshot
+ * An immutable copy of the entity and player state needed
+ * to rewrite packets. Built on the main thread and read by
+ * ProtocolLib's network threads without any locking, so
+ * packet handlers never see a map mid-update, and never
+ * have to wait on the main thread or the database.
+ */
+public final class PacketSnapshot {
+
+    public static final PacketSnapshot EMPTY = new PacketSnapshot(
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            0L
+    );
+
+    private final Map<Integer, EntityView> entities; // Custom entities, keyed by entity id
+    private final Map<UUID, PlayerView> players;     // Online players, keyed by UUID
+    private final long tick;                         // Server tick this was taken on
+
+
+    /**
+     * Packet Snapshot
+     * Maps are neither copied nor wrapped, so must not be
+     * modified after being passed in. The entity map may be
+     * shared with the next snapshot.
+     *
+     * @param entities Custom entities, keyed by entity id.
+     * @param players  Online players, keyed by UUID.
+     * @param tick     Server tick this was taken on.
+     */
+    PacketSnapshot (Map<Integer, EntityView> entities, Map<UUID, PlayerView> players, long tick) {
+        this.entities = entities;
+        this.players = players;
+        this.tick = tick;
+    }
+
+
+    /**
+     * Looks up a custom entity.
+     *
+     * @param entityId Bukkit entity id.
+     * @return Entity view, or null if not a custom entity.
+     */
+    public EntityView getEntity (int entityId) {
+        return entities.get(entityId);
+    }
+
+
+    /**
+     * Looks up an online player.
+     *
+     * @param identifier Player UUID.
+     * @return Player view, or null if not online.
+     */
+    public PlayerView getPlayer (UUID identifier) {
+        return players.get(identifier);
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    Map<Integer, EntityView> getEntities () {
+        return entities;
+    }
+
+    public int getEntityCount () {
+        return entities.size();
+    }
+
+    public int getPlayerCount () {
+        return players.size();
+    }
+
+    public long getTick () {
+        return tick;
+    }
+
+
+    /**
+     * The parts of an active entity seen by packet handlers.
+     */
+    public static final class EntityView {
+
+        private final String customName;
+        private final int level;
+
+        EntityView (String customName, int level) {
+            this.customName = customName;
+            this.level = level;
+        }
+
+        public String getCustomName () {
+            return customName;
+        }
+
+        public int getLevel () {
+            return level;
+        }
+
+    }
+
+
+    /**
+     * The parts of an atomic player seen by packet handlers.
+     */
+    public static final class PlayerView {
+
+        private final String displayName;
+        private final int level;
+
+        PlayerView (String displayName, int level) {
+            this.displayName = displayName;
+            this.level = level;
+        }
+
+        public String getDisplayName () {
+            return displayName;
+        }
+
+        public int getLevel () {
+            return level;
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.atomichive.core.listeners;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.entity.ActiveEntity;
+import net.atomichive.core.entity.EntityManager;
+import net.atomichive.core.player.AtomicPlayer;
+import net.atomichive.core.player.PlayerManager;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Packet Snapshot Publisher
+ * Takes a new packet snapshot every server tick, and
+ * publishes it through a volatile field. Packet handlers
+ * read whichever snapshot is current, which is at most
+ * one tick old.
+ * The entity map is only rebuilt when entities have been
+ * added or removed since the last snapshot.
+ */
+public class PacketSnapshotPublisher extends BukkitRunnable {
+
+    private volatile PacketSnapshot snapshot = PacketSnapshot.EMPTY;
+
+    private int lastModCount = -1; // Entity manager mod count of the last snapshot
+    private long tick = 0;         // Ticks since the publisher started
+
+
+    @Override
+    public void run () {
+        tick++;
+        publish();
+    }
+
+
+    /**
+     * Takes and publishes a new snapshot straight away.
+     * Spawn packets are sent later in the same tick as the
+     * spawn, so anything spawning entities should publish
+     * rather than wait for the next tick.
+     * Note: Only call from the main thread.
+     */
+    public void publish () {
+
+        Main plugin = Main.getInstance();
+        EntityManager entityManager = plugin.getEntityManager();
+        PlayerManager playerManager = plugin.getPlayerManager();
+
+        PacketSnapshot previous = snapshot;
+        Map<Integer, PacketSnapshot.EntityView> entities = previous.getEntities();
+
+        // Rebuild entities only when something has changed
+        if (entityManager.getModCount() != lastModCount) {
+
+            entities = new HashMap<>();
+
+            for (ActiveEntity active : entityManager.getActiveEntities()) {
+                entities.put(active.getEntity().getEntityId(), new PacketSnapshot.EntityView(
+                        active.getEntity().getCustomName(),
+                        active.getLevel()
+                ));
+            }
+
+            lastModCount = entityManager.getModCount();
+
+        }
+
+        // Player names and levels change without notice, so
+        // these are always copied
+        Map<UUID, PacketSnapshot.PlayerView> players = new HashMap<>();
+
+        for (AtomicPlayer player : playerManager.getAll()) {
+            players.put(player.getIdentifier(), new PacketSnapshot.PlayerView(
+                    player.getDisplayName(),
+                    player.getLevel()
+            ));
+        }
+
+        snapshot = new PacketSnapshot(entities, players, tick);
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public PacketSnapshot getSnapshot () {
+        return snapshot;
+    }
+
+}
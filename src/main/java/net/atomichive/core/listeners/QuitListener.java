@@ -2,7 +2,6 @@ package net.atomichive.core.listeners;
 
 import net.atomichive.core.Main;
 import net.atomichive.core.player.AtomicPlayer;
-import net.atomichive.core.player.AtomicPlayerDAO;
 import net.atomichive.core.player.PlayerManager;
 import net.atomichive.core.util.Util;
 import org.bukkit.event.EventHandler;
@@ -26,13 +25,16 @@ public final class QuitListener extends BaseListener implements Listener {
         PlayerManager manager = Main.getInstance().getPlayerManager();
 
         // Get player
-        AtomicPlayer player = manager.get(event.getPlayer());
-        manager.removePlayer(player);
+        AtomicPlayer player = manager.removePlayer(event.getPlayer());
+
+        // Ensure player was loaded
+        if (player == null) return;
 
         // Update last seen value
         player.setLastSeen(Util.getCurrentTimestamp());
 
-        AtomicPlayerDAO.update(player);
+        // Saved by the next background flush
+        manager.getFlusher().stage(player);
 
     }
 
@@ -0,0 +1,152 @@
+package net.atomichive.core.nms;
+
+import net.atomichive.core.util.Util;
+import net.minecraft.server.v1_12_R1.NBTTagCompound;
+import org.bukkit.craftbukkit.v1_12_R1.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Field;
+
+/**
+ * Item Tags
+ * Reads and writes the "atomic" NBT compound, which holds
+ * structured data about custom items:
+ *  { atomic: { id: "name", level: 5 } }
+ * Bukkit keeps unknown tags through item meta changes, so
+ * the compound survives renaming, enchanting, etc.
+ */
+public class ItemTags {
+
+    public static final String ROOT = "atomic";
+    public static final String ID = "id";
+    public static final String LEVEL = "level";
+
+    private static final int COMPOUND = 10; // NBT type id of a compound
+
+    // Backing NMS item stack of a craft item stack
+    private static final Field HANDLE = Util.getPrivateField(CraftItemStack.class, "handle");
+
+
+    /**
+     * Creates a copy of an item stack with an atomic compound.
+     *
+     * @param stack      Item stack to copy.
+     * @param identifier Custom item name, or null.
+     * @param level      Minimum level, or -1 if none.
+     * @return Tagged copy of the item stack.
+     */
+    public static ItemStack write (ItemStack stack, String identifier, int level) {
+
+        net.minecraft.server.v1_12_R1.ItemStack nms = CraftItemStack.asNMSCopy(stack);
+
+        NBTTagCompound tag = nms.hasTag() ? nms.getTag() : new NBTTagCompound();
+        tag.set(ROOT, compound(identifier, level));
+        nms.setTag(tag);
+
+        return CraftItemStack.asCraftMirror(nms);
+
+    }
+
+
+    /**
+     * Determines whether an item stack is backed by an NMS
+     * item stack, so reads see the same tag every time.
+     *
+     * @param stack Item stack.
+     * @return Whether the stack is a craft item stack.
+     */
+    public static boolean isBacked (ItemStack stack) {
+        return stack instanceof CraftItemStack;
+    }
+
+
+    /**
+     * Retrieves the root NBT tag of an item stack. Craft
+     * item stacks are read directly, without copying.
+     *
+     * @param stack Item stack.
+     * @return Root tag, or null if the stack has none.
+     */
+    public static NBTTagCompound getTag (ItemStack stack) {
+
+        if (stack == null)
+            return null;
+
+        net.minecraft.server.v1_12_R1.ItemStack nms = getHandle(stack);
+
+        // Plain Bukkit stacks have to be copied
+        if (nms == null)
+            nms = CraftItemStack.asNMSCopy(stack);
+
+        return (nms != null && nms.hasTag()) ? nms.getTag() : null;
+
+    }
+
+
+    /**
+     * Retrieves the atomic compound from a root tag.
+     *
+     * @param tag Root tag, or null.
+     * @return Atomic compound, or null if there is none.
+     */
+    public static NBTTagCompound getAtomic (NBTTagCompound tag) {
+
+        if (tag == null || !tag.hasKeyOfType(ROOT, COMPOUND))
+            return null;
+
+        return tag.getCompound(ROOT);
+
+    }
+
+
+    /**
+     * Retrieves the minimum level from an atomic compound.
+     *
+     * @param atomic Atomic compound.
+     * @return Minimum level, or -1 if none.
+     */
+    public static int getLevel (NBTTagCompound atomic) {
+        return atomic.hasKey(LEVEL) ? atomic.getInt(LEVEL) : -1;
+    }
+
+
+    /**
+     * Retrieves the custom item name from an atomic compound.
+     *
+     * @param atomic Atomic compound.
+     * @return Custom item name, or null if unknown.
+     */
+    public static String getIdentifier (NBTTagCompound atomic) {
+        return atomic.hasKey(ID) ? atomic.getString(ID) : null;
+    }
+
+
+    private static NBTTagCompound compound (String identifier, int level) {
+
+        NBTTagCompound atomic = new NBTTagCompound();
+
+        if (identifier != null)
+            atomic.setString(ID, identifier);
+
+        if (level != -1)
+            atomic.setInt(LEVEL, level);
+
+        return atomic;
+
+    }
+
+
+    private static net.minecraft.server.v1_12_R1.ItemStack getHandle (ItemStack stack) {
+
+        if (!(stack instanceof CraftItemStack) || HANDLE == null)
+            return null;
+
+        try {
+            return (net.minecraft.server.v1_12_R1.ItemStack) HANDLE.get(stack);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+
+    }
+
+}
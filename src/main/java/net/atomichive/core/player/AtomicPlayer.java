@@ -5,13 +5,7 @@ import net.atomichive.core.util.ExperienceUtil;
 import net.atomichive.core.util.ExpiringValue;
 import net.atomichive.core.util.Util;
 import org.bukkit.Bukkit;
-import org.bukkit.Color;
-import org.bukkit.FireworkEffect;
-import org.bukkit.Sound;
-import org.bukkit.entity.EntityType;
-import org.bukkit.entity.Firework;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.meta.FireworkMeta;
 
 import java.sql.Timestamp;
 import java.util.UUID;
@@ -36,6 +30,9 @@ public class AtomicPlayer {
     // Keeps track of the last /tpa request (expires).
     private transient ExpiringValue<Player> lastTeleportRequest;
 
+    // Whether any persisted field has changed since the last save
+    private transient volatile boolean dirty = false;
+
 
     /**
      * Constructor
@@ -64,6 +61,38 @@ public class AtomicPlayer {
     }
 
 
+    /**
+     * Copy constructor, used to take a snapshot of the
+     * persisted fields for saving off the main thread.
+     * The snapshot has no transient state.
+     *
+     * @param source Player to copy.
+     */
+    private AtomicPlayer (AtomicPlayer source) {
+        this.identifier = source.identifier;
+        this.username = source.username;
+        this.displayName = source.displayName;
+        this.level = source.level;
+        this.experience = source.experience;
+        this.lastSeen = source.lastSeen;
+        this.loginCount = source.loginCount;
+        this.verbosity = source.verbosity;
+    }
+
+
+    /**
+     * Takes a snapshot of this player's persisted fields,
+     * and marks this player as clean.
+     * Note: Only call from the main thread.
+     *
+     * @return Snapshot of this player.
+     */
+    public AtomicPlayer snapshot () {
+        dirty = false;
+        return new AtomicPlayer(this);
+    }
+
+
     /**
      * Determines whether this atomic player represents
      * the given Bukkit player.
@@ -82,36 +111,52 @@ public class AtomicPlayer {
      * @param experience Amount of experience to give.
      */
     public void giveExperience (int experience) {
-        this.experience += experience;
-        updateExperience();
+        giveExperience(experience, Bukkit.getPlayer(this.identifier));
     }
 
 
     /**
-     * Determines if a level up is required, and performs
-     * a level up if necessary.
+     * Gives experience to this player.
+     *
+     * @param experience Amount of experience to give.
+     * @param player     This player, if online, or null.
      */
-    public void updateExperience () {
+    public void giveExperience (int experience, Player player) {
 
-        Player player = Bukkit.getPlayer(this.identifier);
+        long total = (long) this.experience + experience;
 
-        // Get required experience
-        int required = ExperienceUtil.levelUpExperience(level);
+        this.experience = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, total));
+        this.dirty = true;
 
-        // Check if experience is high enough
-        while (experience >= required) {
+        updateExperience(player);
 
-            // Perform level up
-            level++;
-            experience -= required;
+    }
 
-            // Play effects if player is online
-            if (player != null)
-                playLevelUpEffects(player);
 
-            required = ExperienceUtil.levelUpExperience(level);
+    /**
+     * Determines if a level up is required, and performs
+     * a level up if necessary.
+     */
+    public void updateExperience () {
+        updateExperience(Bukkit.getPlayer(this.identifier));
+    }
 
-        }
+
+    /**
+     * Determines if a level up is required, and performs
+     * a level up if necessary. Any number of levels are
+     * resolved at once, with a single level up effect.
+     *
+     * @param player This player, if online, or null.
+     */
+    public void updateExperience (Player player) {
+
+        int gained = resolveLevel();
+        PlayerManager manager = Main.getInstance().getPlayerManager();
+
+        // Play effects if player is online
+        if (gained > 0 && player != null)
+            manager.getLevelUpEffects().queue(identifier, gained);
 
         // Update visually
         if (player != null) {
@@ -119,44 +164,48 @@ public class AtomicPlayer {
             player.setExp(getExperienceFloat());
         }
 
+        manager.getLeaderboard().update(this);
+
     }
 
 
     /**
-     * Shoots fireworks, plays sounds and makes a big
-     * deal out of levelling up.
+     * Converts experience beyond the current level into
+     * levels. Levels within the cumulative experience table
+     * are resolved in one step, and any beyond it one at a
+     * time.
      *
-     * @param player Player that levelled up.
+     * @return Number of levels gained.
      */
-    private void playLevelUpEffects (Player player) {
+    private int resolveLevel () {
 
-        // Construct a new firework
-        FireworkEffect effect = FireworkEffect.builder()
-                .with(FireworkEffect.Type.BALL)
-                .trail(true)
-                .withColor(Color.RED, Color.YELLOW, Color.ORANGE)
-                .withFade(Color.BLUE)
-                .build();
+        int start = level;
 
-        Firework firework = (Firework) player.getWorld().spawnEntity(
-                player.getLocation(),
-                EntityType.FIREWORK
-        );
+        // Jump straight to the level reached, within the table
+        if (level >= 0 && level < ExperienceUtil.TABLE_LEVELS
+                && experience >= ExperienceUtil.levelUpExperience(level)) {
 
-        FireworkMeta meta = firework.getFireworkMeta();
-        meta.addEffect(effect);
-        meta.setPower(0);
-        firework.setFireworkMeta(meta);
+            long total = ExperienceUtil.totalExperience(level) + experience;
+            int reached = ExperienceUtil.levelFor(total);
 
+            level = reached;
+            experience = (int) Math.min(Integer.MAX_VALUE, total - ExperienceUtil.totalExperience(reached));
 
-        // Play sound effect
-        // TODO Create some kind of level up sound
-        player.getWorld().playSound(
-                player.getLocation(),
-                Sound.BLOCK_NOTE_HARP,
-                1.5f,
-                (float) Math.pow(2.0, ((double) 1 - 12.0) / 12.0)
-        );
+        }
+
+        // Beyond the table, level up one level at a time
+        int required = ExperienceUtil.levelUpExperience(level);
+
+        while (experience >= required) {
+            level++;
+            experience -= required;
+            required = ExperienceUtil.levelUpExperience(level);
+        }
+
+        if (level != start)
+            dirty = true;
+
+        return level - start;
 
     }
 
@@ -180,6 +229,7 @@ public class AtomicPlayer {
 
     public void setUsername (String username) {
         this.username = username;
+        this.dirty = true;
     }
 
     public String getDisplayName () {
@@ -188,6 +238,7 @@ public class AtomicPlayer {
 
     public void setDisplayName (String displayName) {
         this.displayName = displayName;
+        this.dirty = true;
     }
 
     public int getLevel () {
@@ -196,6 +247,7 @@ public class AtomicPlayer {
 
     public void setLevel (int level) {
         this.level = level;
+        this.dirty = true;
     }
 
     public int getExperience () {
@@ -204,6 +256,7 @@ public class AtomicPlayer {
 
     public void setExperience (int experience) {
         this.experience = experience;
+        this.dirty = true;
     }
 
     public Timestamp getLastSeen () {
@@ -212,6 +265,7 @@ public class AtomicPlayer {
 
     public void setLastSeen (Timestamp lastSeen) {
         this.lastSeen = lastSeen;
+        this.dirty = true;
     }
 
     public int getLoginCount () {
@@ -220,6 +274,7 @@ public class AtomicPlayer {
 
     public void setLoginCount (int loginCount) {
         this.loginCount = loginCount;
+        this.dirty = true;
     }
 
     public short getVerbosity () {
@@ -228,6 +283,7 @@ public class AtomicPlayer {
 
     public void setVerbosity (short verbosity) {
         this.verbosity = verbosity;
+        this.dirty = true;
     }
 
     public Player getLastMessageFrom () {
@@ -244,6 +300,7 @@ public class AtomicPlayer {
 
     public void incrementLoginCount () {
         loginCount++;
+        dirty = true;
     }
 
     public float getExperienceFloat () {
@@ -252,6 +309,15 @@ public class AtomicPlayer {
 
     public void setExperienceFloat (float experience) {
         this.experience = (int) (experience * (float) ExperienceUtil.levelUpExperience(level));
+        this.dirty = true;
+    }
+
+    public boolean isDirty () {
+        return dirty;
+    }
+
+    public void setDirty (boolean dirty) {
+        this.dirty = dirty;
     }
 
 }
@@ -1,61 +1,25 @@
 package net.atomichive.core.player;
 
-import io.seanbailey.database.DatabaseManager;
-import io.seanbailey.database.builders.InsertBuilder;
-import io.seanbailey.database.builders.SelectBuilder;
-import io.seanbailey.database.builders.UpdateBuilder;
+import net.atomichive.core.database.StorageBackend;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * A data access object for atomic players.
+ * Delegates to the configured storage backend, so all
+ * methods are safe to use from any thread.
  */
 public class AtomicPlayerDAO {
 
-    // For performance improvements, create prepared statements once
-    private static PreparedStatement insertStatement;
-    private static PreparedStatement updateStatement;
-    private static PreparedStatement findByIdStatement;
+    private static StorageBackend storage;
 
 
-    /**
-     * Defines tables and columns, and creates prepared
-     * statements.
-     */
-    public static void init (DatabaseManager manager) throws SQLException {
-
-        // Create prepared statements
-        insertStatement = new InsertBuilder("players").addColumns(
-                "player_id",
-                "username",
-                "display_name",
-                "level",
-                "experience",
-                "last_seen",
-                "login_count",
-                "verbosity"
-        ).toPrepared(manager.getConnection());
-
-        updateStatement = new UpdateBuilder("players").addColumns(
-                "username",
-                "display_name",
-                "level",
-                "experience",
-                "last_seen",
-                "login_count",
-                "verbosity"
-        ).where("player_id = ?").toPrepared(manager.getConnection());
-
-        findByIdStatement = new SelectBuilder("players")
-                .addColumn("*")
-                .where("player_id = ?")
-                .toPrepared(manager.getConnection());
-
+    public static void init (StorageBackend storage) {
+        AtomicPlayerDAO.storage = storage;
     }
 
 
@@ -66,161 +30,54 @@ public class AtomicPlayerDAO {
      * @param identifier UUID of player.
      * @return List of all matching players. Should theoretically
      * never be more than one player long.
+     * @throws SQLException if the query failed.
      */
-    public static List<AtomicPlayer> findByIdentifier (UUID identifier) {
-
-        try {
-
-            // Set values in prepared statement
-            findByIdStatement.setObject(1, identifier);
-
-            ResultSet set = findByIdStatement.executeQuery();
-            return mapResultsToPlayers(set);
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return null;
-
+    public static List<AtomicPlayer> findByIdentifier (UUID identifier) throws SQLException {
+        return storage.findPlayers(identifier);
     }
 
 
     /**
-     * Adds a new atomic player to the database.
+     * Gets the level and experience of every player.
      *
-     * @param player Atomic player to add.
+     * @return Leaderboard entries.
+     * @throws SQLException if the query failed.
      */
-    public static void insert (AtomicPlayer player) {
-
-        try {
-
-            int n = 1;
-
-            // Set values in prepared statement
-            insertStatement.clearParameters();
-            insertStatement.setObject(n++, player.getIdentifier());
-            insertStatement.setString(n++, player.getUsername());
-            insertStatement.setString(n++, player.getDisplayName());
-            insertStatement.setInt(n++, player.getLevel());
-            insertStatement.setInt(n++, player.getExperience());
-            insertStatement.setTimestamp(n++, player.getLastSeen());
-            insertStatement.setInt(n++, player.getLoginCount());
-            insertStatement.setShort(n, player.getVerbosity());
-
-            // Execute
-            insertStatement.executeUpdate();
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
+    public static List<Leaderboard.Entry> getRankings () throws SQLException {
+        return storage.getRankings();
     }
 
 
     /**
-     * Updates an existing atomic player in the database.
-     *
-     * @param player Player to update
-     */
-    public static void update (AtomicPlayer player) {
-
-        try {
-
-            mapPlayerToStatement(updateStatement, player);
-
-            // Execute
-            updateStatement.executeUpdate();
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-    }
-
-
-    /**
-     * Updates a list of players in a batch.
+     * Adds a new atomic player to the database.
      *
-     * @param players List of players to update.
+     * @param player Atomic player to add.
+     * @throws SQLException if the insert failed.
      */
-    public static void update (List<AtomicPlayer> players) {
-
-        try {
-
-            for (AtomicPlayer player : players) {
-                mapPlayerToStatement(updateStatement, player);
-                updateStatement.addBatch();
-            }
-
-            updateStatement.executeBatch();
-            updateStatement.clearBatch();
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public static void insert (AtomicPlayer player) throws SQLException {
+        storage.insertPlayer(player);
     }
 
 
     /**
-     * Maps SQL results to atomic player objects.
+     * Updates an existing atomic player in the database.
      *
-     * @param statement Prepared statement to map player to.
-     * @param player    Player to map to statement.
+     * @param player Player to update
+     * @throws SQLException if the update failed.
      */
-    private static void mapPlayerToStatement (PreparedStatement statement, AtomicPlayer player)
-            throws SQLException {
-
-        int n = 1;
-
-        statement.clearParameters();
-        statement.setString(n++, player.getUsername());
-        statement.setString(n++, player.getDisplayName());
-        statement.setInt(n++, player.getLevel());
-        statement.setInt(n++, player.getExperience());
-        statement.setTimestamp(n++, player.getLastSeen());
-        statement.setInt(n++, player.getLoginCount());
-        statement.setShort(n++, player.getVerbosity());
-        statement.setObject(n, player.getIdentifier());
-
+    public static void update (AtomicPlayer player) throws SQLException {
+        update(Collections.singletonList(player));
     }
 
 
     /**
-     * Takes an SQL result set, and maps the returned columns
-     * to Atomic Player objects.
+     * Updates a collection of players in a batch.
      *
-     * @param rs Result set from SQL query.
-     * @return List of players from the result set.
+     * @param players Players to update.
+     * @throws SQLException if the batch failed.
      */
-    private static List<AtomicPlayer> mapResultsToPlayers (ResultSet rs) throws SQLException {
-
-        // Create a new list
-        List<AtomicPlayer> players = new ArrayList<>();
-
-        // Iterate over set results
-        while (rs.next()) {
-
-            // Create new atomic player
-            AtomicPlayer player = new AtomicPlayer();
-
-            // Update attributes
-            player.setIdentifier((UUID) rs.getObject("player_id"));
-            player.setUsername(rs.getString("username"));
-            player.setDisplayName(rs.getString("display_name"));
-            player.setLevel(rs.getInt("level"));
-            player.setExperience(rs.getInt("experience"));
-            player.setLastSeen(rs.getTimestamp("last_seen"));
-            player.setLoginCount(rs.getInt("login_count"));
-            player.setVerbosity(rs.getShort("verbosity"));
-
-            // Add player to list
-            players.add(player);
-
-        }
-
-        return players;
-
+    public static void update (Collection<AtomicPlayer> players) throws SQLException {
+        storage.updatePlayers(players);
     }
 
 }
@@ -0,0 +1,142 @@
+package net.atomichive.core.player;
+
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command Spies
+ * Online players who listen to other players' commands,
+ * indexed by verbosity, so a command only has to visit its
+ * actual listeners rather than every online player.
+ * Whether a player is staff is checked once per session.
+ * Note: Only use from the main thread.
+ */
+public class CommandSpies {
+
+    public static final short NONE = 0;  // No commands
+    public static final short BASIC = 1; // Non-staff commands
+    public static final short ALL = 2;   // All commands
+
+    private static final String STAFF_PERMISSION = "atomic-core.staff";
+
+    // Listening players, indexed by verbosity
+    private final Map<UUID, Player> basic = new LinkedHashMap<>();
+    private final Map<UUID, Player> all = new LinkedHashMap<>();
+
+    // Whether each player is staff, cached for their session
+    private final Map<UUID, Boolean> staff = new HashMap<>();
+
+
+    /**
+     * Sets the verbosity a player listens at.
+     *
+     * @param player    Online player.
+     * @param verbosity Verbosity level, from NONE to ALL.
+     */
+    public void subscribe (Player player, short verbosity) {
+
+        UUID identifier = player.getUniqueId();
+
+        basic.remove(identifier);
+        all.remove(identifier);
+
+        if (verbosity == BASIC) {
+            basic.put(identifier, player);
+        } else if (verbosity == ALL) {
+            all.put(identifier, player);
+        }
+
+    }
+
+
+    /**
+     * Forgets a player, e.g. when they quit.
+     *
+     * @param identifier Player UUID.
+     */
+    public void unsubscribe (UUID identifier) {
+        basic.remove(identifier);
+        all.remove(identifier);
+        staff.remove(identifier);
+    }
+
+
+    /**
+     * Forgets all players.
+     */
+    public void clear () {
+        basic.clear();
+        all.clear();
+        staff.clear();
+    }
+
+
+    /**
+     * Determines whether a player is staff. Only checked
+     * once per session.
+     *
+     * @param player Online player.
+     * @return Whether the player is staff.
+     */
+    public boolean isStaff (Player player) {
+        return staff.computeIfAbsent(
+                player.getUniqueId(),
+                (identifier) -> player.hasPermission(STAFF_PERMISSION)
+        );
+    }
+
+
+    /**
+     * Sends a command to everyone listening to it.
+     *
+     * @param sender  Player who sent the command.
+     * @param message Message to send.
+     * @return Number of players the message was sent to.
+     */
+    public int broadcast (Player sender, String message) {
+
+        int sent = send(all.values(), sender, message);
+
+        // Staff commands are only seen at full verbosity
+        if (!basic.isEmpty() && !isStaff(sender))
+            sent += send(basic.values(), sender, message);
+
+        return sent;
+
+    }
+
+
+    private int send (Collection<Player> recipients, Player sender, String message) {
+
+        int sent = 0;
+
+        for (Player recipient : recipients) {
+
+            // Ensure player is not sender
+            if (recipient.equals(sender))
+                continue;
+
+            recipient.sendMessage(message);
+            sent++;
+
+        }
+
+        return sent;
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public int getSubscriberCount () {
+        return basic.size() + all.size();
+    }
+
+}
@@ -0,0 +1,144 @@
+package net.atomichive.core.player;
+
+import net.atomichive.core.util.RankedSkipList;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leaderboard
+ * Ranks every player by level, then experience, in memory.
+ * Seeded once from the database, then kept up to date as
+ * online players gain experience, so ranking never queries
+ * the players table.
+ * Note: Only use from the main thread.
+ */
+public class Leaderboard {
+
+    // Highest level and experience first, ties broken by UUID
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt(Entry::getLevel).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::getExperience).reversed())
+            .thenComparing(Entry::getIdentifier);
+
+    private final RankedSkipList<UUID, Entry> entries = new RankedSkipList<>(ORDER);
+    private boolean seeded = false;
+
+
+    /**
+     * Adds players loaded from the database. Players already
+     * on the leaderboard are newer, so are kept.
+     *
+     * @param loaded Entries for every stored player.
+     */
+    public void seed (Collection<Entry> loaded) {
+
+        for (Entry entry : loaded)
+            entries.putIfAbsent(entry.getIdentifier(), entry);
+
+        seeded = true;
+
+    }
+
+
+    /**
+     * Updates a player's position, if their level,
+     * experience or name has changed.
+     *
+     * @param player Player to update.
+     */
+    public void update (AtomicPlayer player) {
+
+        Entry current = entries.getValue(player.getIdentifier());
+
+        if (current != null
+                && current.getLevel() == player.getLevel()
+                && current.getExperience() == player.getExperience()
+                && current.getName().equals(player.getUsername()))
+            return;
+
+        entries.put(player.getIdentifier(), new Entry(
+                player.getIdentifier(),
+                player.getUsername(),
+                player.getLevel(),
+                player.getExperience()
+        ));
+
+    }
+
+
+    /**
+     * Gets a page of the leaderboard.
+     *
+     * @param from  Zero based rank of the first entry.
+     * @param count Maximum number of entries.
+     * @return Entries, highest ranked first.
+     */
+    public List<Entry> getTop (int from, int count) {
+        return entries.range(from, count);
+    }
+
+
+    /**
+     * Gets a player's position on the leaderboard.
+     *
+     * @param identifier Player UUID.
+     * @return One based rank, or 0 if the player isn't ranked.
+     */
+    public int getRank (UUID identifier) {
+        return entries.rank(identifier) + 1;
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public int size () {
+        return entries.size();
+    }
+
+    public boolean isSeeded () {
+        return seeded;
+    }
+
+
+    /**
+     * A player's standing. Only holds what ranking needs,
+     * so every stored player can be kept in memory.
+     */
+    public static class Entry {
+
+        private final UUID identifier;
+        private final String name;
+        private final int level;
+        private final int experience;
+
+        public Entry (UUID identifier, String name, int level, int experience) {
+            this.identifier = identifier;
+            this.name = name;
+            this.level = level;
+            this.experience = experience;
+        }
+
+        public UUID getIdentifier () {
+            return identifier;
+        }
+
+        public String getName () {
+            return name;
+        }
+
+        public int getLevel () {
+            return level;
+        }
+
+        public int getExperience () {
+            return experience;
+        }
+
+    }
+
+}
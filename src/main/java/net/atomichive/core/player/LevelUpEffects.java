@@ -0,0 +1,118 @@
+package net.atomichive.core.player;
+
+import net.atomichive.core.Main;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Color;
+import org.bukkit.FireworkEffect;
+import org.bukkit.Sound;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Firework;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.meta.FireworkMeta;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Level Up Effects
+ * Shoots fireworks, plays sounds and makes a big deal out of
+ * levelling up. Level ups are collected over a tick, and each
+ * player gets a single effect for however many levels they
+ * gained, rather than one firework per level.
+ * Note: Only use from the main thread.
+ */
+public class LevelUpEffects {
+
+    private final Map<UUID, Integer> pending = new LinkedHashMap<>(); // Player, levels gained
+    private boolean scheduled = false;
+
+
+    /**
+     * Queues an effect for the end of this tick.
+     *
+     * @param identifier Player UUID.
+     * @param levels     Number of levels gained.
+     */
+    public void queue (UUID identifier, int levels) {
+
+        if (levels <= 0) return;
+
+        pending.merge(identifier, levels, Integer::sum);
+
+        if (!scheduled) {
+            scheduled = true;
+            Bukkit.getScheduler().runTask(Main.getInstance(), this::play);
+        }
+
+    }
+
+
+    /**
+     * Plays one effect for each player who levelled up.
+     */
+    private void play () {
+
+        scheduled = false;
+
+        for (Map.Entry<UUID, Integer> entry : pending.entrySet()) {
+
+            Player player = Bukkit.getPlayer(entry.getKey());
+
+            if (player != null)
+                play(player, entry.getValue());
+
+        }
+
+        pending.clear();
+
+    }
+
+
+    /**
+     * Plays a level up effect.
+     *
+     * @param player Player that levelled up.
+     * @param levels Number of levels gained.
+     */
+    private void play (Player player, int levels) {
+
+        // Construct a new firework
+        FireworkEffect effect = FireworkEffect.builder()
+                .with(levels > 1 ? FireworkEffect.Type.BALL_LARGE : FireworkEffect.Type.BALL)
+                .trail(true)
+                .withColor(Color.RED, Color.YELLOW, Color.ORANGE)
+                .withFade(Color.BLUE)
+                .build();
+
+        Firework firework = (Firework) player.getWorld().spawnEntity(
+                player.getLocation(),
+                EntityType.FIREWORK
+        );
+
+        FireworkMeta meta = firework.getFireworkMeta();
+        meta.addEffect(effect);
+        meta.setPower(0);
+        firework.setFireworkMeta(meta);
+
+
+        // Play sound effect
+        // TODO Create some kind of level up sound
+        player.getWorld().playSound(
+                player.getLocation(),
+                Sound.BLOCK_NOTE_HARP,
+                1.5f,
+                (float) Math.pow(2.0, ((double) 1 - 12.0) / 12.0)
+        );
+
+        if (levels > 1) {
+            player.sendMessage(String.format(
+                    "Gained %s levels!",
+                    ChatColor.GREEN + String.valueOf(levels) + ChatColor.RESET
+            ));
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package net.atomichive.core.player;
+
+import net.atomichive.core.Main;
+import net.atomichive.core.util.Histogram;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Player Flusher
+ * Write-behind persistence for atomic players. Each run
+ * snapshots every dirty online player on the main thread,
+ * then saves all pending snapshots in a single batch off
+ * the main thread. Failed batches are kept and retried on
+ * the next run.
+ */
+public class PlayerFlusher extends BukkitRunnable {
+
+    private final PlayerManager manager;
+
+    // Snapshots waiting to be saved, and those being saved
+    private final Map<UUID, AtomicPlayer> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicPlayer> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Flush metrics
+    private final Histogram flushSize = new Histogram();
+    private final Histogram flushLatency = new Histogram(); // Nanoseconds per batch
+    private final AtomicLong failures = new AtomicLong();
+
+
+    /**
+     * Player Flusher
+     *
+     * @param manager Player manager holding online players.
+     */
+    PlayerFlusher (PlayerManager manager) {
+        this.manager = manager;
+    }
+
+
+    /**
+     * Snapshots dirty players, and schedules an async
+     * flush if anything needs saving.
+     */
+    @Override
+    public void run () {
+
+        for (AtomicPlayer player : manager.getAll())
+            stage(player);
+
+        // Only one async flush at a time
+        if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+            Main.getInstance().getDatabaseExecutor()
+                    .submit(this::flush)
+                    .whenComplete((result, e) -> scheduled.set(false));
+        }
+
+    }
+
+
+    /**
+     * Queues a snapshot of a player to be saved, if they
+     * have changed since they were last saved.
+     * Note: Only call from the main thread.
+     *
+     * @param player Player to stage.
+     */
+    public void stage (AtomicPlayer player) {
+        if (player.isDirty())
+            pending.put(player.getIdentifier(), player.snapshot());
+    }
+
+
+    /**
+     * Saves all pending snapshots in one batch.
+     * Blocks on the database, so don't call this from
+     * the main thread.
+     *
+     * @return Whether the flush succeeded.
+     */
+    public synchronized boolean flush () {
+
+        if (pending.isEmpty()) return true;
+
+        List<AtomicPlayer> batch = new ArrayList<>();
+
+        // Move snapshots in flight before removing them from pending,
+        // so isPending never misses them
+        for (Map.Entry<UUID, AtomicPlayer> entry : pending.entrySet()) {
+            inFlight.put(entry.getKey(), entry.getValue());
+            pending.remove(entry.getKey(), entry.getValue());
+            batch.add(entry.getValue());
+        }
+
+        long start = System.nanoTime();
+
+        try {
+
+            AtomicPlayerDAO.update(batch);
+            flushSize.record(batch.size());
+            return true;
+
+        } catch (SQLException e) {
+
+            failures.incrementAndGet();
+            Main.getInstance().log(Level.WARNING, String.format(
+                    "Failed to save %d players, will retry: %s",
+                    batch.size(),
+                    e.getMessage()
+            ));
+
+            // Requeue, unless a newer snapshot has been staged since
+            for (AtomicPlayer snapshot : batch)
+                pending.putIfAbsent(snapshot.getIdentifier(), snapshot);
+
+            return false;
+
+        } finally {
+            flushLatency.record(System.nanoTime() - start);
+            inFlight.clear();
+        }
+
+    }
+
+
+    /**
+     * Flushes everything on a separate thread, waiting at
+     * most the given time. Used when the plugin is disabled,
+     * so a stalled database can't hang the shutdown.
+     *
+     * @param timeout Maximum milliseconds to wait.
+     * @return Whether everything was saved in time.
+     */
+    public boolean flush (long timeout) {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Boolean> result = executor.submit(() -> flush());
+            return result.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+
+    /**
+     * Determines whether a player has changes which
+     * haven't been saved yet.
+     *
+     * @param identifier Player UUID.
+     * @return Whether changes are waiting to be saved.
+     */
+    public boolean isPending (UUID identifier) {
+        return pending.containsKey(identifier) || inFlight.containsKey(identifier);
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public int getPendingCount () {
+        return pending.size();
+    }
+
+    public Histogram getFlushSize () {
+        return flushSize;
+    }
+
+    public Histogram getFlushLatency () {
+        return flushLatency;
+    }
+
+    public long getFailures () {
+        return failures.get();
+    }
+
+}
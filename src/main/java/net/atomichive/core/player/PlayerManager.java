@@ -1,37 +1,136 @@
 package net.atomichive.core.player;
 
+import net.atomichive.core.Main;
+import net.atomichive.core.util.Histogram;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 
 /**
  * Keeps track of all currently online players.
+ * Lookups are purely in memory and safe from any thread
+ * (including ProtocolLib's netty threads). Only the explicit
+ * load paths touch the database.
+ * Players are normally prefetched on the async pre-login
+ * thread and staged, so login only has to promote them.
  */
-public class PlayerManager {
+public class PlayerManager implements PlayerManagerMXBean {
 
 
-    // An array list of all currently active players
-    private List<AtomicPlayer> players = new ArrayList<>();
+    // All currently online players, keyed by UUID
+    private final Map<UUID, AtomicPlayer> players = new ConcurrentHashMap<>();
+
+    // Players loaded during pre-login, waiting to log in
+    private final Map<UUID, Staged> staged = new ConcurrentHashMap<>();
+    private final long stagingExpiry; // Nanoseconds before a staged player is dropped
+
+    // When each player last left, so profiles loaded while an
+    // older session was still online are never promoted
+    private final Map<UUID, Long> departures = new ConcurrentHashMap<>();
+
+    // Saves dirty players in the background
+    private final PlayerFlusher flusher = new PlayerFlusher(this);
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final LevelUpEffects levelUpEffects = new LevelUpEffects();
+    private final CommandSpies commandSpies = new CommandSpies();
+
+    // Login metrics
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong prefetchMisses = new AtomicLong();
+    private final Histogram loadLatency = new Histogram(); // Nanoseconds per database load
+
+
+    /**
+     * Constructor
+     *
+     * @param stagingExpiry Seconds a prefetched player is kept
+     *                      waiting for their login.
+     */
+    public PlayerManager (int stagingExpiry) {
+        this.stagingExpiry = TimeUnit.SECONDS.toNanos(stagingExpiry);
+    }
 
 
     /**
-     * Adds a player to the list of online players.
+     * Loads a player ahead of their login, and stages them
+     * until they log in. Intended to be called from the
+     * async pre-login thread.
+     *
+     * @param identifier Player UUID.
+     * @param username   Player's current username.
+     * @return Whether the player was loaded, or will be at login.
+     */
+    public boolean prefetch (UUID identifier, String username) {
+
+        purgeStaged();
+
+        // Bukkit only kicks a duplicate session after pre-login.
+        // Anything loaded now would be stale by the time the old
+        // session is saved, so leave it to be loaded at login.
+        if (players.containsKey(identifier))
+            return true;
+
+        long started = System.nanoTime();
+        AtomicPlayer atomicPlayer = load(identifier, username);
+
+        if (atomicPlayer == null)
+            return false;
+
+        // Don't stage if a session came or went during the load
+        if (!players.containsKey(identifier) && !flusher.isPending(identifier))
+            staged.put(identifier, new Staged(atomicPlayer, started));
+
+        return true;
+
+    }
+
+
+    /**
+     * Adds a player to the map of online players. Players
+     * staged during pre-login are promoted, otherwise they
+     * are loaded from the database.
+     * Note: This blocks on the database if the player
+     * was not prefetched.
      *
      * @param player Bukkit player to add.
-     * @return Bukkit player converted to Atomic player.
+     * @return Bukkit player converted to Atomic player, or
+     * null if the player could not be loaded.
      */
     public AtomicPlayer addPlayer (Player player) {
 
         player.setCollidable(false);
 
-        // Convert to atomic player
         AtomicPlayer atomicPlayer = get(player);
 
-        // Add to player list
-        addPlayer(atomicPlayer);
+        if (atomicPlayer != null)
+            return atomicPlayer;
+
+        Staged prefetched = staged.remove(player.getUniqueId());
+
+        // Convert to atomic player
+        if (prefetched != null && !prefetched.isExpired(stagingExpiry)
+                && !hasLeftSince(player.getUniqueId(), prefetched.startedAt)) {
+            prefetchHits.incrementAndGet();
+            atomicPlayer = prefetched.player;
+        } else {
+            prefetchMisses.incrementAndGet();
+            atomicPlayer = load(player.getUniqueId(), player.getName());
+        }
+
+        // Add to player map
+        if (atomicPlayer != null) {
+            addPlayer(atomicPlayer);
+            commandSpies.subscribe(player, atomicPlayer.getVerbosity());
+        }
 
-        // Return atomic player
         return atomicPlayer;
 
     }
@@ -43,7 +142,27 @@ public class PlayerManager {
      * @param player Atomic player to add.
      */
     public void addPlayer (AtomicPlayer player) {
-        players.add(player);
+        players.put(player.getIdentifier(), player);
+        leaderboard.update(player);
+    }
+
+
+    /**
+     * Remove player
+     *
+     * @param player Bukkit player to remove.
+     * @return Removed atomic player, or null if not present.
+     */
+    public AtomicPlayer removePlayer (Player player) {
+
+        commandSpies.unsubscribe(player.getUniqueId());
+        AtomicPlayer removed = players.remove(player.getUniqueId());
+
+        if (removed != null)
+            departures.put(player.getUniqueId(), System.nanoTime());
+
+        return removed;
+
     }
 
 
@@ -53,59 +172,300 @@ public class PlayerManager {
      * @param player Atomic player to remove.
      */
     public void removePlayer (AtomicPlayer player) {
-        players.remove(player);
+        if (players.remove(player.getIdentifier(), player)) {
+            commandSpies.unsubscribe(player.getIdentifier());
+            departures.put(player.getIdentifier(), System.nanoTime());
+        }
     }
 
 
     /**
-     * Remove all players from the player manager.
+     * Remove all players from the player manager, saving
+     * any unsaved changes first.
+     *
+     * @param timeout Maximum milliseconds to wait for the save.
+     * @return Whether all changes were saved.
      */
-    public void removeAll () {
-        AtomicPlayerDAO.update(players);
+    public boolean removeAll (long timeout) {
+
+        for (AtomicPlayer player : players.values())
+            flusher.stage(player);
+
         players.clear();
+        commandSpies.clear();
+
+        return flusher.flush(timeout);
+
     }
 
 
     /**
-     * Returns a corresponding atomic player object, or
-     * creates a new one if none exists.
+     * Loads a player from the database, inserting a new
+     * player if none exists. The player is not added to
+     * the map of online players.
+     * Note: This blocks on the database.
      *
-     * @param player Bukkit player.
-     * @return Atomic player.
+     * @param identifier Player UUID.
+     * @param username   Player's current username.
+     * @return Atomic player, or null if the database could
+     * not be read.
      */
-    public AtomicPlayer get (Player player) {
+    public AtomicPlayer load (UUID identifier, String username) {
+
+        long start = System.nanoTime();
+
+        try {
+            return find(identifier, username);
+        } finally {
+            loadLatency.record(System.nanoTime() - start);
+        }
+
+    }
+
+
+    private AtomicPlayer find (UUID identifier, String username) {
+
+        // Save any changes from a previous session first, so
+        // we don't read stale data
+        if (flusher.isPending(identifier)) {
+            flusher.flush();
+            if (flusher.isPending(identifier))
+                return null;
+        }
 
-        // Iterate over all stored players.
-        for (AtomicPlayer atomicPlayer : players) {
-            if (atomicPlayer.is(player)) {
-                return atomicPlayer;
+        try {
+
+            // Attempt to load player from db
+            List<AtomicPlayer> players = AtomicPlayerDAO
+                    .findByIdentifier(identifier);
+
+            if (!players.isEmpty()) {
+                // Return the first matching player.
+                return players.get(0);
             }
+
+            // Create new atomic player
+            AtomicPlayer atomicPlayer = new AtomicPlayer(
+                    identifier,
+                    username
+            );
+
+            // Insert player
+            AtomicPlayerDAO.insert(atomicPlayer);
+
+            return atomicPlayer;
+
+        } catch (SQLException e) {
+
+            // Don't treat a failed read as a new player, or we
+            // would overwrite their real data later on
+            Main.getInstance().log(Level.WARNING, String.format(
+                    "Failed to load player %s: %s",
+                    identifier,
+                    e.getMessage()
+            ));
+
+            return null;
+
         }
 
-        // Attempt to load player from db
-        List<AtomicPlayer> players = AtomicPlayerDAO
-                .findByIdentifier(player.getUniqueId());
+    }
+
+
+    /**
+     * Gives the same experience to many online players at
+     * once, e.g. for an event reward. Each player's new level
+     * is resolved in one step, and level up effects are
+     * coalesced into one per player for the tick.
+     * Note: Only call from the main thread.
+     *
+     * @param recipients Players to reward.
+     * @param experience Experience to give each player.
+     * @return Number of players rewarded.
+     */
+    public int giveExperience (Collection<? extends Player> recipients, int experience) {
+
+        int rewarded = 0;
+
+        for (Player player : recipients) {
+
+            AtomicPlayer atomicPlayer = players.get(player.getUniqueId());
+
+            if (atomicPlayer == null) continue;
+
+            atomicPlayer.giveExperience(experience, player);
+            rewarded++;
 
-        if (!players.isEmpty()) {
-            // Return the first matching player.
-            return players.get(0);
         }
 
-        // Create new atomic player
-        AtomicPlayer atomicPlayer = new AtomicPlayer(
-                player.getUniqueId(),
-                player.getName()
-        );
+        return rewarded;
 
-        // Insert player
-        AtomicPlayerDAO.insert(atomicPlayer);
+    }
 
-        return atomicPlayer;
 
+    /**
+     * Returns the corresponding online atomic player.
+     * Never touches the database.
+     *
+     * @param player Bukkit player.
+     * @return Atomic player, or null if not loaded.
+     */
+    public AtomicPlayer get (Player player) {
+        return players.get(player.getUniqueId());
+    }
+
+
+    /**
+     * Returns the corresponding online atomic player.
+     * Never touches the database.
+     *
+     * @param identifier Player UUID.
+     * @return Atomic player, or null if not loaded.
+     */
+    public AtomicPlayer get (UUID identifier) {
+        return players.get(identifier);
     }
 
-    public List<AtomicPlayer> getAll () {
-        return players;
+
+    /**
+     * Drops staged players who never logged in,
+     * e.g. because their login was denied.
+     */
+    private void purgeStaged () {
+
+        long now = System.nanoTime();
+
+        staged.values().removeIf((entry) -> entry.isExpired(stagingExpiry));
+
+        // Nothing staged before these can still be waiting
+        departures.values().removeIf((time) -> now - time > stagingExpiry);
+
+    }
+
+
+    /**
+     * Determines whether a player's session ended after a
+     * given time, e.g. part way through a prefetch.
+     *
+     * @param identifier Player UUID.
+     * @param since      System.nanoTime() to compare with.
+     * @return Whether the player has left since then.
+     */
+    private boolean hasLeftSince (UUID identifier, long since) {
+        Long departed = departures.get(identifier);
+        return departed != null && departed - since >= 0;
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public Collection<AtomicPlayer> getAll () {
+        return players.values();
+    }
+
+    public PlayerFlusher getFlusher () {
+        return flusher;
+    }
+
+    public Leaderboard getLeaderboard () {
+        return leaderboard;
+    }
+
+    public LevelUpEffects getLevelUpEffects () {
+        return levelUpEffects;
+    }
+
+    public CommandSpies getCommandSpies () {
+        return commandSpies;
+    }
+
+    public Histogram getLoadLatency () {
+        return loadLatency;
+    }
+
+    @Override
+    public int getOnlineCount () {
+        return players.size();
+    }
+
+    @Override
+    public int getStagedCount () {
+        return staged.size();
+    }
+
+    @Override
+    public long getPrefetchHits () {
+        return prefetchHits.get();
+    }
+
+    @Override
+    public long getPrefetchMisses () {
+        return prefetchMisses.get();
+    }
+
+    @Override
+    public double getPrefetchHitRate () {
+        long hits = getPrefetchHits();
+        long total = hits + getPrefetchMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public double getMeanLoadMillis () {
+        return loadLatency.getMean() / 1e6;
+    }
+
+    @Override
+    public double getP99LoadMillis () {
+        return loadLatency.getPercentile(99) / 1e6;
+    }
+
+    @Override
+    public int getPendingSaves () {
+        return flusher.getPendingCount();
+    }
+
+    @Override
+    public long getFlushes () {
+        return flusher.getFlushSize().getCount();
+    }
+
+    @Override
+    public long getFlushFailures () {
+        return flusher.getFailures();
+    }
+
+    @Override
+    public double getMeanFlushSize () {
+        return flusher.getFlushSize().getMean();
+    }
+
+    @Override
+    public double getMeanFlushMillis () {
+        return flusher.getFlushLatency().getMean() / 1e6;
+    }
+
+
+    /**
+     * A prefetched player, and when they were loaded.
+     */
+    private static class Staged {
+
+        private final AtomicPlayer player;
+        private final long startedAt; // When the load began
+        private final long loadedAt = System.nanoTime();
+
+        Staged (AtomicPlayer player, long startedAt) {
+            this.player = player;
+            this.startedAt = startedAt;
+        }
+
+        boolean isExpired (long expiry) {
+            return System.nanoTime() - loadedAt > expiry;
+        }
+
     }
 
 }
@@ -0,0 +1,33 @@
+package net.atomichive.core.player;
+
+/**
+ * JMX view of online players, login prefetching
+ * and background saves.
+ */
+public interface PlayerManagerMXBean {
+
+    int getOnlineCount ();
+
+    int getStagedCount ();
+
+    long getPrefetchHits ();
+
+    long getPrefetchMisses ();
+
+    double getPrefetchHitRate ();
+
+    double getMeanLoadMillis ();
+
+    double getP99LoadMillis ();
+
+    int getPendingSaves ();
+
+    long getFlushes ();
+
+    long getFlushFailures ();
+
+    double getMeanFlushSize ();
+
+    double getMeanFlushMillis ();
+
+}
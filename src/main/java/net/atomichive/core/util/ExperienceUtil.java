@@ -1,11 +1,28 @@
 package net.atomichive.core.util;
 
+import java.util.Arrays;
+
 /**
  * Experience Util
  * Various utilities for working with player experience.
+ * The experience needed for the first TABLE_LEVELS levels is
+ * precomputed, so resolving any amount of experience within
+ * them is a binary search rather than a loop over each level.
  */
 public class ExperienceUtil {
 
+    // Levels covered by the precomputed table. This is not a
+    // level cap: higher levels are resolved one at a time.
+    public static final int TABLE_LEVELS = 1000;
+
+    // TOTAL[n] is the experience needed to reach level n from 0
+    private static final long[] TOTAL = new long[TABLE_LEVELS + 1];
+
+    static {
+        for (int level = 1; level <= TABLE_LEVELS; level++)
+            TOTAL[level] = TOTAL[level - 1] + compute(level - 1);
+    }
+
 
     /**
      * Level up experience
@@ -19,7 +36,52 @@ public class ExperienceUtil {
      * @return Total amount of experience required to level up.
      */
     public static int levelUpExperience (int level) {
-        return (int) (Math.pow(level + 1, 3) + 20);
+
+        if (level >= 0 && level < TABLE_LEVELS)
+            return (int) (TOTAL[level + 1] - TOTAL[level]);
+
+        return compute(level);
+
+    }
+
+
+    private static int compute (int level) {
+        long next = level + 1L;
+        return (int) Math.min(Integer.MAX_VALUE, next * next * next + 20);
+    }
+
+
+    /**
+     * Total experience
+     * The experience needed to reach a level from level 0.
+     *
+     * @param level Level, clamped to 0 to TABLE_LEVELS.
+     * @return Total experience.
+     */
+    public static long totalExperience (int level) {
+        return TOTAL[Math.max(0, Math.min(level, TABLE_LEVELS))];
+    }
+
+
+    /**
+     * Level for
+     * Finds the level reached with an amount of total
+     * experience, in O(log TABLE_LEVELS).
+     *
+     * @param total Total experience since level 0.
+     * @return Level reached, at most TABLE_LEVELS.
+     */
+    public static int levelFor (long total) {
+
+        if (total <= 0)
+            return 0;
+
+        int index = Arrays.binarySearch(TOTAL, total);
+
+        // Exact match reaches that level, otherwise the level
+        // below the insertion point
+        return (index >= 0) ? index : -index - 2;
+
     }
 
 }
@@ -0,0 +1,148 @@
+package net.atomichive.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram
+ * A fixed size histogram of non-negative values (usually
+ * nanoseconds), bucketed by powers of two. Recording is a
+ * couple of atomic increments, so it is cheap enough for hot
+ * paths and can safely be read from other threads (e.g. JMX).
+ * Percentiles are approximate, accurate to within a factor
+ * of two.
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Records a single value. Negative values are
+     * treated as zero.
+     *
+     * @param value Value to record.
+     */
+    public void record (long value) {
+
+        value = Math.max(0, value);
+
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        updateMax(value);
+
+    }
+
+
+    /**
+     * Adds all values recorded by another histogram
+     * to this one.
+     *
+     * @param other Histogram to merge.
+     */
+    public void add (Histogram other) {
+
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.addAndGet(i, other.buckets.get(i));
+
+        count.addAndGet(other.getCount());
+        sum.addAndGet(other.getSum());
+        updateMax(other.getMax());
+
+    }
+
+
+    /**
+     * Approximates a percentile, as the upper bound of
+     * the bucket the percentile falls into.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Approximate value, or 0 if nothing was recorded.
+     */
+    public long getPercentile (double percentile) {
+
+        long total = getCount();
+
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= Math.max(1, rank))
+                return Math.min(upperBound(i), getMax());
+        }
+
+        return getMax();
+
+    }
+
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset () {
+
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.set(i, 0);
+
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+
+    }
+
+
+    private void updateMax (long value) {
+
+        long current = max.get();
+
+        while (value > current && !max.compareAndSet(current, value))
+            current = max.get();
+
+    }
+
+
+    /**
+     * Bucket 0 holds zero, and bucket n holds values
+     * in the range [2^(n-1), 2^n).
+     */
+    private static int bucketOf (long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+
+    private static long upperBound (int bucket) {
+        return bucket == 0 ? 0 : (1L << Math.min(62, bucket)) - 1;
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public long getCount () {
+        return count.get();
+    }
+
+    public long getSum () {
+        return sum.get();
+    }
+
+    public long getMax () {
+        return max.get();
+    }
+
+    public double getMean () {
+        long total = getCount();
+        return total == 0 ? 0 : (double) getSum() / total;
+    }
+
+}
@@ -0,0 +1,75 @@
+package net.atomichive.core.util;
+
+import net.atomichive.core.Main;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+
+/**
+ * Management Util
+ * Registers plugin beans with the platform MBean server,
+ * so they can be inspected with JConsole or similar.
+ */
+public class ManagementUtil {
+
+    private static final String DOMAIN = "net.atomichive.core";
+
+
+    /**
+     * Registers a bean, replacing any bean left behind
+     * by a previous load of the plugin.
+     *
+     * @param type Bean type, used as its name.
+     * @param bean Bean to register.
+     */
+    public static void register (String type, Object bean) {
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+
+            ObjectName name = getName(type);
+
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+
+            server.registerMBean(bean, name);
+
+        } catch (JMException e) {
+            Main.getInstance().log(Level.WARNING, "Failed to register " + type + " with JMX: " + e.getMessage());
+        }
+
+    }
+
+
+    /**
+     * Unregisters a bean, if registered.
+     *
+     * @param type Bean type.
+     */
+    public static void unregister (String type) {
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+
+            ObjectName name = getName(type);
+
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+
+        } catch (JMException e) {
+            Main.getInstance().log(Level.WARNING, "Failed to unregister " + type + " from JMX: " + e.getMessage());
+        }
+
+    }
+
+
+    private static ObjectName getName (String type) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type);
+    }
+
+}
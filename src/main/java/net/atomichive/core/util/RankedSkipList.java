@@ -0,0 +1,300 @@
+package net.atomichive.core.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranked Skip List
+ * Keeps values sorted, and looks them up by key or by rank.
+ * Each link records how many nodes it skips over, so insert,
+ * remove, rank-of and value-at-rank are all O(log n), and a
+ * page of n values costs O(log size + n).
+ * The comparator must be a total order, i.e. only return 0
+ * for the same value, otherwise removal may miss nodes.
+ * Note: Not thread safe.
+ *
+ * @param <K> Key type, used to find and replace values.
+ * @param <V> Value type, kept in comparator order.
+ */
+public class RankedSkipList<K, V> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double P = 0.25;
+
+    private final Comparator<? super V> comparator;
+    private final Map<K, Node<V>> nodes = new HashMap<>();
+    private final Node<V> head = new Node<>(null, MAX_LEVEL);
+    private int level = 1;
+
+
+    /**
+     * Ranked Skip List
+     *
+     * @param comparator Total order of values, lowest ranked first.
+     */
+    public RankedSkipList (Comparator<? super V> comparator) {
+        this.comparator = comparator;
+    }
+
+
+    /**
+     * Adds a value, replacing any existing value for the key.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return Previous value for the key, or null.
+     */
+    public V put (K key, V value) {
+
+        V previous = remove(key);
+        insert(key, value);
+
+        return previous;
+
+    }
+
+
+    /**
+     * Adds a value, unless the key already has one.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return Whether the value was added.
+     */
+    public boolean putIfAbsent (K key, V value) {
+
+        if (nodes.containsKey(key))
+            return false;
+
+        insert(key, value);
+        return true;
+
+    }
+
+
+    /**
+     * Removes the value for a key.
+     *
+     * @param key Key.
+     * @return Removed value, or null if there wasn't one.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove (K key) {
+
+        Node<V> node = nodes.remove(key);
+
+        if (node == null)
+            return null;
+
+        Node<V>[] update = new Node[MAX_LEVEL];
+        Node<V> x = head;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, node.value) < 0)
+                x = x.next[i];
+            update[i] = x;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        while (level > 1 && head.next[level - 1] == null)
+            level--;
+
+        return node.value;
+
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void insert (K key, V value) {
+
+        Node<V>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node<V> x = head;
+
+        // Find the last node before the value on each level,
+        // and how many nodes precede it
+        for (int i = level - 1; i >= 0; i--) {
+
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+
+            update[i] = x;
+
+        }
+
+        int height = randomLevel();
+
+        if (height > level) {
+            for (int i = level; i < height; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = nodes.size();
+            }
+            level = height;
+        }
+
+        Node<V> node = new Node<>(value, height);
+
+        for (int i = 0; i < height; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        // Links above the new node now skip over one more
+        for (int i = height; i < level; i++)
+            update[i].span[i]++;
+
+        nodes.put(key, node);
+
+    }
+
+
+    /**
+     * Gets the rank of a key's value.
+     *
+     * @param key Key.
+     * @return Zero based rank, or -1 if the key has no value.
+     */
+    public int rank (K key) {
+
+        Node<V> node = nodes.get(key);
+
+        if (node == null)
+            return -1;
+
+        Node<V> x = head;
+        int rank = 0;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, node.value) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node)
+                return rank - 1;
+        }
+
+        return -1;
+
+    }
+
+
+    /**
+     * Gets the value at a rank.
+     *
+     * @param rank Zero based rank.
+     * @return Value, or null if out of range.
+     */
+    public V get (int rank) {
+        Node<V> node = nodeAt(rank);
+        return (node == null) ? null : node.value;
+    }
+
+
+    /**
+     * Gets a run of values in rank order.
+     *
+     * @param from  Zero based rank of the first value.
+     * @param count Maximum number of values.
+     * @return Values, fewer than count if the list runs out.
+     */
+    public List<V> range (int from, int count) {
+
+        List<V> values = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+
+        for (Node<V> x = nodeAt(from); x != null && values.size() < count; x = x.next[0])
+            values.add(x.value);
+
+        return values;
+
+    }
+
+
+    private Node<V> nodeAt (int rank) {
+
+        if (rank < 0 || rank >= size())
+            return null;
+
+        Node<V> x = head;
+        int traversed = 0;
+        int target = rank + 1;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == target)
+                return x;
+        }
+
+        return null;
+
+    }
+
+
+    private static int randomLevel () {
+
+        int height = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (height < MAX_LEVEL && random.nextDouble() < P)
+            height++;
+
+        return height;
+
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public V getValue (K key) {
+        Node<V> node = nodes.get(key);
+        return (node == null) ? null : node.value;
+    }
+
+    public boolean contains (K key) {
+        return nodes.containsKey(key);
+    }
+
+    public int size () {
+        return nodes.size();
+    }
+
+
+    private static class Node<V> {
+
+        private final V value;
+        private final Node<V>[] next;
+        private final int[] span; // Nodes skipped by each link
+
+        @SuppressWarnings("unchecked")
+        Node (V value, int height) {
+            this.value = value;
+            this.next = new Node[height];
+            this.span = new int[height];
+        }
+
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.atomichive.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Timing Wheel
+ * A hashed timing wheel. Items are placed in a slot based on
+ * when they are next due, so each advance only has to look at
+ * a single slot rather than every scheduled item. Delays longer
+ * than the wheel simply wait in their slot for extra rotations.
+ *
+ * @param <T> Type of scheduled item.
+ */
+public class TimingWheel<T> {
+
+    private final int mask;
+    private final List<Entry<T>>[] slots;
+    private List<Entry<T>> spare = new ArrayList<>();
+
+    private long tick = 0; // Current position of the wheel
+    private int size = 0;  // Number of scheduled items
+
+
+    /**
+     * Timing Wheel
+     *
+     * @param slots Number of slots, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel (int slots) {
+
+        int capacity = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+
+        this.mask = capacity - 1;
+        this.slots = new List[capacity];
+
+        for (int i = 0; i < capacity; i++)
+            this.slots[i] = new ArrayList<>();
+
+    }
+
+
+    /**
+     * Schedules an item to be due after a number of advances.
+     *
+     * @param item  Item to schedule.
+     * @param delay Number of advances until the item is due (min 1).
+     */
+    public void schedule (T item, int delay) {
+        add(new Entry<>(item, tick + Math.max(1, delay)));
+        size++;
+    }
+
+
+    /**
+     * Advances the wheel by one, passing each item that is now
+     * due to the given function. The function returns the delay
+     * until the item is next due, or zero (or less) to drop it.
+     *
+     * @param fire Function to run for each due item.
+     * @return Number of items that were due.
+     */
+    public int advance (ToIntFunction<T> fire) {
+
+        tick++;
+
+        int slot = (int) (tick & mask);
+
+        // Swap out the current slot, so items rescheduled
+        // into it are not visited twice.
+        List<Entry<T>> current = slots[slot];
+        slots[slot] = spare;
+
+        int due = 0;
+
+        for (int i = 0; i < current.size(); i++) {
+
+            Entry<T> entry = current.get(i);
+
+            // Still waiting for a later rotation
+            if (entry.deadline > tick) {
+                slots[slot].add(entry);
+                continue;
+            }
+
+            due++;
+            int delay = fire.applyAsInt(entry.item);
+
+            if (delay > 0) {
+                entry.deadline = tick + delay;
+                add(entry);
+            } else {
+                size--;
+            }
+
+        }
+
+        current.clear();
+        spare = current;
+
+        return due;
+
+    }
+
+
+    private void add (Entry<T> entry) {
+        slots[(int) (entry.deadline & mask)].add(entry);
+    }
+
+
+    /*
+        Getters and setters.
+     */
+
+    public long getTick () {
+        return tick;
+    }
+
+    public int size () {
+        return size;
+    }
+
+
+    /**
+     * A scheduled item, and when it is next due.
+     */
+    private static class Entry<T> {
+
+        private final T item;
+        private long deadline;
+
+        Entry (T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+    }
+
+}
@@ -339,37 +339,6 @@ public class Util {
     }
 
 
-    /**
-     * Returns the closest entity in to a particular location.
-     *
-     * @param entities Collection of entities.
-     * @return Closest entity.
-     */
-    public static List<Entity> getClosest (Location location, List<Entity> entities) {
-
-        double lowestDistance = -1;
-        Entity closest = null;
-
-        // Iterate over entities
-        for (Entity entity : entities) {
-            double dist = location.distanceSquared(entity.getLocation());
-            if (lowestDistance == -1 || dist < lowestDistance) {
-                lowestDistance = dist;
-                closest = entity;
-            }
-        }
-
-        entities.clear();
-
-        // Add closest, if its not null
-        if (closest != null)
-            entities.add(closest);
-
-        return entities;
-
-    }
-
-
     /**
      * Returns the difference of two location vectors.
      *
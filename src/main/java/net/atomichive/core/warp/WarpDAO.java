@@ -1,48 +1,22 @@
 package net.atomichive.core.warp;
 
-import io.seanbailey.database.DatabaseManager;
-import io.seanbailey.database.builders.DeleteBuilder;
-import io.seanbailey.database.builders.InsertBuilder;
-import io.seanbailey.database.builders.SelectBuilder;
+import net.atomichive.core.database.StorageBackend;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Warp DAO
+ * Delegates to the configured storage backend.
  */
 public class WarpDAO {
 
+    private static StorageBackend storage;
 
-    private static PreparedStatement insertStatement;
-    private static PreparedStatement deleteStatement;
-
-    private static DatabaseManager manager;
-
-
-    public static void init (DatabaseManager manager) throws SQLException {
-
-        WarpDAO.manager = manager;
-
-        // Create prepared statements
-        insertStatement = new InsertBuilder("warps").addColumns(
-                "warp_id",
-                "name",
-                "message",
-                "world_id",
-                "x", "y", "z",
-                "pitch", "yaw"
-        ).toPrepared(manager.getConnection());
-
-        deleteStatement = new DeleteBuilder("warps")
-                .where("warp_id = ?")
-                .toPrepared(manager.getConnection());
 
+    public static void init (StorageBackend storage) {
+        WarpDAO.storage = storage;
     }
 
 
@@ -50,54 +24,10 @@ public class WarpDAO {
      * Get all
      *
      * @return all warps.
+     * @throws SQLException if the query failed.
      */
-    public static List<Warp> getAll () {
-
-        try {
-            // Create a new statement
-            Statement statement = manager.getConnection().createStatement();
-
-            // Execute query
-            ResultSet rs = statement.executeQuery(
-                    new SelectBuilder("warps")
-                            .addColumn("*")
-                            .toString()
-            );
-
-            // Map results to warp objects
-            // Create a new list
-            List<Warp> warps = new ArrayList<>();
-
-            // Iterate over set results
-            while (rs.next()) {
-
-                // Create new atomic player
-                Warp warp = new Warp();
-
-                // Update attributes
-                warp.setIdentifier((UUID) rs.getObject("warp_id"));
-                warp.setName(rs.getString("name"));
-                warp.setMessage(rs.getString("message"));
-                warp.setWorld((UUID) rs.getObject("world_id"));
-                warp.setX(rs.getInt("x"));
-                warp.setY(rs.getInt("y"));
-                warp.setZ(rs.getInt("z"));
-                warp.setPitch(rs.getFloat("pitch"));
-                warp.setYaw(rs.getFloat("yaw"));
-
-                // Add player to list
-                warps.add(warp);
-
-            }
-
-            return warps;
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return null;
-
+    public static List<Warp> getAll () throws SQLException {
+        return storage.getWarps();
     }
 
 
@@ -106,32 +36,10 @@ public class WarpDAO {
      * Add a warp to the db
      *
      * @param warp Warp to insert.
+     * @throws SQLException if the insert failed.
      */
-    public static void insert (Warp warp) {
-
-        try {
-
-            int n = 1;
-
-            // Set values in prepared statement
-            insertStatement.clearParameters();
-            insertStatement.setObject(n++, warp.getIdentifier());
-            insertStatement.setString(n++, warp.getName());
-            insertStatement.setString(n++, warp.getMessage());
-            insertStatement.setObject(n++, warp.getWorld());
-            insertStatement.setInt(n++, warp.getX());
-            insertStatement.setInt(n++, warp.getY());
-            insertStatement.setInt(n++, warp.getZ());
-            insertStatement.setFloat(n++, warp.getPitch());
-            insertStatement.setFloat(n, warp.getYaw());
-
-            // Execute
-            insertStatement.executeUpdate();
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
+    public static void insert (Warp warp) throws SQLException {
+        storage.insertWarp(warp);
     }
 
 
@@ -139,8 +47,9 @@ public class WarpDAO {
      * Drop
      *
      * @param warp Warp object to drop.
+     * @throws SQLException if the delete failed.
      */
-    public static void drop (Warp warp) {
+    public static void drop (Warp warp) throws SQLException {
         drop(warp.getIdentifier());
     }
 
@@ -150,21 +59,10 @@ public class WarpDAO {
      * Drops a warp from the db.
      *
      * @param identifier Warp identifier.
+     * @throws SQLException if the delete failed.
      */
-    public static void drop (UUID identifier) {
-
-        try {
-
-            // Set params
-            deleteStatement.clearParameters();
-            deleteStatement.setObject(1, identifier);
-
-            // Execute
-            deleteStatement.execute();
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public static void drop (UUID identifier) throws SQLException {
+        storage.deleteWarp(identifier);
     }
 
 }
@@ -1,20 +1,49 @@
 package net.atomichive.core.warp;
 
+import net.atomichive.core.Main;
+import net.atomichive.core.database.DatabaseExecutor;
 import net.atomichive.core.exception.UnknownWarpException;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * Warp Manager
  * Keeps track of all currently active warps.
+ * Changes apply in memory straight away, and are saved in
+ * the background one at a time, in order. A change that
+ * fails to save is undone.
+ * Note: Only use from the main thread.
  */
 public class WarpManager {
 
     private List<Warp> warps = new ArrayList<>();
 
-    public void add (Warp warp) {
+    // Last warp write, which the next one waits for
+    private CompletableFuture<Void> lane = CompletableFuture.completedFuture(null);
+
+
+    /**
+     * Add
+     * Adds a warp, saving it in the background.
+     *
+     * @param warp Warp to add.
+     * @return Completes on the main thread once saved, or
+     * exceptionally once the warp has been removed again.
+     */
+    public CompletableFuture<Void> add (Warp warp) {
+
         warps.add(warp);
+
+        return write("save warp " + warp.getName(), () -> {
+            WarpDAO.insert(warp);
+            return null;
+        }, () -> warps.remove(warp));
+
     }
 
 
@@ -49,7 +78,14 @@ public class WarpManager {
      * them into memory.
      */
     public void load () {
-        warps = WarpDAO.getAll();
+
+        try {
+            warps = WarpDAO.getAll();
+        } catch (SQLException e) {
+            // Keep existing warps if the query failed
+            Main.getInstance().log(Level.WARNING, "Failed to load warps: " + e.getMessage());
+        }
+
     }
 
 
@@ -80,9 +116,10 @@ public class WarpManager {
      * the warp manager.
      *
      * @param name Name of the warp to delete.
-     * @return deleted warp for output purposes.
+     * @return Completes on the main thread with the deleted warp
+     * once dropped, or exceptionally once it has been restored.
      */
-    public Warp delete (String name) throws UnknownWarpException {
+    public CompletableFuture<Warp> delete (String name) throws UnknownWarpException {
 
         // Ensure warp exists.
         if (!contains(name))
@@ -91,11 +128,52 @@ public class WarpManager {
         // Get warp
         Warp warp = get(name);
 
-        // Delete
-        WarpDAO.drop(warp);
+        // Delete, dropping from the db in the background
         warps.remove(warp);
 
-        return warp;
+        return write("delete warp " + warp.getName(), () -> {
+            WarpDAO.drop(warp);
+            return null;
+        }, () -> {
+            // Unless a new warp has taken its name since
+            if (!contains(warp.getName()))
+                warps.add(warp);
+        }).thenApply((ignored) -> warp);
+
+    }
+
+
+    /**
+     * Queues a write behind any earlier warp writes, so they
+     * reach the database in the order they were made.
+     *
+     * @param description What the write does, for logging.
+     * @param work        Database work.
+     * @param rollback    Undoes the in memory change if the
+     *                    write fails. Run on the main thread.
+     * @return Completes on the main thread once written.
+     */
+    private CompletableFuture<Void> write (String description, Callable<Void> work, Runnable rollback) {
+
+        DatabaseExecutor executor = Main.getInstance().getDatabaseExecutor();
+
+        // Run whether or not the previous write succeeded
+        CompletableFuture<Void> written = lane
+                .handle((ignored, e) -> (Void) null)
+                .thenCompose((ignored) -> executor.submit(work));
+
+        lane = written;
+
+        return written.whenCompleteAsync((ignored, e) -> {
+            if (e != null) {
+                Main.getInstance().log(Level.WARNING, String.format(
+                        "Failed to %s: %s",
+                        description,
+                        (e.getCause() != null ? e.getCause() : e).getMessage()
+                ));
+                rollback.run();
+            }
+        }, executor.mainThread());
 
     }
 
@@ -0,0 +1,75 @@
+package net.atomichive.core.database;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Circuit Breaker Test
+ */
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 1000L, now::get);
+
+
+    @Test
+    public void opensAfterConsecutiveFailures () {
+
+        breaker.failure();
+        breaker.failure();
+        breaker.success();
+        breaker.failure();
+        breaker.failure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.failure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allow());
+        assertEquals(1, breaker.getTrips());
+
+    }
+
+
+    @Test
+    public void allowsOneTrialAfterCooldown () {
+
+        for (int i = 0; i < 3; i++)
+            breaker.failure();
+
+        now.set(999000000L);
+        assertFalse(breaker.allow());
+
+        now.set(1000000000L);
+        assertTrue(breaker.allow());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allow());
+
+        breaker.success();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allow());
+
+    }
+
+
+    @Test
+    public void failedTrialReopens () {
+
+        for (int i = 0; i < 3; i++)
+            breaker.failure();
+
+        now.set(1000000000L);
+        assertTrue(breaker.allow());
+        breaker.failure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTrips());
+        assertFalse(breaker.allow());
+
+    }
+
+}
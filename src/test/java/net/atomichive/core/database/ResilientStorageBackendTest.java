@@ -0,0 +1,142 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.warp.Warp;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Resilient Storage Backend Test
+ * Outages are simulated by holding SQLite's only pooled
+ * connection, so every call times out waiting for it.
+ */
+public class ResilientStorageBackendTest {
+
+    private File file;
+    private File journalFile;
+    private SQLiteStorageBackend sqlite;
+    private CircuitBreaker breaker;
+    private ResilientStorageBackend storage;
+
+
+    @Before
+    public void setUp () throws Exception {
+
+        file = File.createTempFile("atomic_core", ".db");
+        journalFile = new File(file.getParentFile(), file.getName() + ".jsonl");
+
+        sqlite = new SQLiteStorageBackend(file, 50L);
+        sqlite.migrate();
+
+        // Trip on the first failure, and allow a trial straight away
+        breaker = new CircuitBreaker(1, 0L);
+        storage = new ResilientStorageBackend(
+                sqlite,
+                breaker,
+                new WriteJournal(journalFile),
+                Logger.getAnonymousLogger()
+        );
+
+    }
+
+
+    @After
+    public void tearDown () {
+        storage.close();
+        file.delete();
+        journalFile.delete();
+    }
+
+
+    @Test
+    public void rejectedWritesAreNotJournalled () throws Exception {
+
+        Warp warp = new Warp("spawn", UUID.randomUUID(), 0, 64, 0);
+        storage.insertWarp(warp);
+
+        // Duplicate key: SQLite reports this with no SQL state
+        try {
+            storage.insertWarp(warp);
+            fail("Duplicate insert should be rejected.");
+        } catch (SQLException expected) {
+            assertTrue(storage.getJournal().isEmpty());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, storage.getWarps().size());
+
+    }
+
+
+    @Test
+    public void journalsDuringOutageAndReplaysInOrder () throws Exception {
+
+        Warp first = new Warp("first", UUID.randomUUID(), 0, 64, 0);
+        Warp second = new Warp("second", UUID.randomUUID(), 0, 64, 0);
+
+        try (ConnectionPool.Lease ignored = sqlite.getPool().borrow()) {
+
+            storage.insertWarp(first);
+            storage.insertWarp(second);
+            storage.deleteWarp(first.getIdentifier());
+
+            assertEquals(3, storage.getJournal().size());
+
+            // Reads must fail rather than return stale data
+            try {
+                storage.getWarps();
+                fail("Reads should fail during an outage.");
+            } catch (SQLException e) {
+                assertTrue(storage.isOutage(e));
+            }
+
+        }
+
+        // Delete only works if replayed after its insert
+        List<Warp> warps = storage.getWarps();
+
+        assertEquals(1, warps.size());
+        assertEquals(second.getIdentifier(), warps.get(0).getIdentifier());
+        assertTrue(storage.getJournal().isEmpty());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+    }
+
+
+    @Test
+    public void poisonEntriesAreDropped () throws Exception {
+
+        Warp existing = new Warp("existing", UUID.randomUUID(), 0, 64, 0);
+        Warp later = new Warp("later", UUID.randomUUID(), 0, 64, 0);
+
+        storage.insertWarp(existing);
+
+        try (ConnectionPool.Lease ignored = sqlite.getPool().borrow()) {
+            storage.insertWarp(existing); // Will violate the primary key on replay
+            storage.insertWarp(later);
+        }
+
+        assertEquals(2, storage.getJournal().size());
+
+        List<Warp> warps = storage.getWarps();
+
+        assertEquals(2, warps.size());
+        assertTrue(storage.getJournal().isEmpty());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Later reads aren't blocked either
+        assertEquals(2, storage.getWarps().size());
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package net.atomichive.core.database;
+
+import net.atomichive.core.warp.Warp;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SQLite Storage Backend Test
+ */
+public class SQLiteStorageBackendTest {
+
+    private File file;
+    private SQLiteStorageBackend storage;
+
+
+    @Before
+    public void setUp () throws Exception {
+        file = File.createTempFile("atomic_core", ".db");
+        storage = new SQLiteStorageBackend(file, 1000L);
+        storage.migrate();
+    }
+
+
+    @After
+    public void tearDown () {
+        storage.close();
+        file.delete();
+    }
+
+
+    @Test
+    public void migrateIsRepeatable () throws Exception {
+        storage.migrate();
+        assertTrue(storage.getWarps().isEmpty());
+    }
+
+
+    @Test
+    public void warpsRoundTrip () throws Exception {
+
+        Warp warp = new Warp("spawn", UUID.randomUUID(), 10, 64, -20);
+        warp.setMessage("Welcome");
+        warp.setPitch(12.5f);
+        warp.setYaw(-90f);
+
+        storage.insertWarp(warp);
+
+        List<Warp> warps = storage.getWarps();
+        assertEquals(1, warps.size());
+
+        Warp loaded = warps.get(0);
+        assertEquals(warp.getIdentifier(), loaded.getIdentifier());
+        assertEquals("spawn", loaded.getName());
+        assertEquals("Welcome", loaded.getMessage());
+        assertEquals(warp.getWorld(), loaded.getWorld());
+        assertEquals(-20, loaded.getZ());
+        assertEquals(-90f, loaded.getYaw(), 0f);
+
+        storage.deleteWarp(warp.getIdentifier());
+        assertTrue(storage.getWarps().isEmpty());
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package net.atomichive.core.listeners;
+
+import net.atomichive.core.listeners.NametagCache.Band;
+import org.bukkit.ChatColor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Nametag Cache Test
+ */
+public class NametagCacheTest {
+
+    @Test
+    public void bands () {
+        assertEquals(Band.TRIVIAL, Band.of(20, 15));
+        assertEquals(Band.EVEN, Band.of(20, 16));
+        assertEquals(Band.EVEN, Band.of(20, 21));
+        assertEquals(Band.HARD, Band.of(20, 22));
+        assertEquals(Band.HARD, Band.of(20, 25));
+        assertEquals(Band.DANGEROUS, Band.of(20, 26));
+        assertEquals(Band.DANGEROUS, Band.of(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+
+    @Test
+    public void rendersOncePerBand () {
+
+        NametagCache cache = new NametagCache();
+        String name = "<COLOR>Zombie [5]";
+
+        String red = cache.render(name, Band.DANGEROUS);
+
+        assertEquals(ChatColor.RED + "Zombie [5]", red);
+        assertEquals(ChatColor.GRAY + "Zombie [5]", cache.render(name, Band.TRIVIAL));
+        assertSame(red, cache.render(name, Band.DANGEROUS));
+        assertEquals(1, cache.size());
+        assertEquals("Zombie [5]", cache.strip(name));
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package net.atomichive.core.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Experience Util Test
+ */
+public class ExperienceUtilTest {
+
+    @Test
+    public void matchesFormula () {
+        for (int level = 0; level < 1200; level++)
+            assertEquals((long) Math.pow(level + 1, 3) + 20, ExperienceUtil.levelUpExperience(level));
+    }
+
+
+    @Test
+    public void levelForMatchesLoop () {
+
+        int level = 0;
+        long total = 0;
+
+        // Walk every level boundary, and either side of it
+        while (level < ExperienceUtil.TABLE_LEVELS) {
+
+            assertEquals(level, ExperienceUtil.levelFor(total));
+            assertEquals(level, ExperienceUtil.levelFor(total + 1));
+            assertEquals(total, ExperienceUtil.totalExperience(level));
+
+            total += ExperienceUtil.levelUpExperience(level);
+            level++;
+
+            assertEquals(level - 1, ExperienceUtil.levelFor(total - 1));
+
+        }
+
+        assertEquals(ExperienceUtil.TABLE_LEVELS, ExperienceUtil.levelFor(Long.MAX_VALUE));
+        assertEquals(0, ExperienceUtil.levelFor(-5));
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package net.atomichive.core.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Histogram Test
+ */
+public class HistogramTest {
+
+    @Test
+    public void tracksCountSumAndMax () {
+
+        Histogram histogram = new Histogram();
+
+        histogram.record(10);
+        histogram.record(30);
+        histogram.record(-5);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(40, histogram.getSum());
+        assertEquals(30, histogram.getMax());
+
+    }
+
+
+    @Test
+    public void percentilesAreWithinOneBucket () {
+
+        Histogram histogram = new Histogram();
+
+        for (int i = 1; i <= 100; i++)
+            histogram.record(i * 1000);
+
+        long median = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+
+        assertTrue(median >= 50000 && median < 100000);
+        assertTrue(p99 >= 99000 && p99 <= 100000);
+        assertEquals(0, new Histogram().getPercentile(99));
+
+    }
+
+
+    @Test
+    public void mergesOtherHistograms () {
+
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+
+        a.record(5);
+        b.record(500);
+        b.record(7);
+
+        a.add(b);
+
+        assertEquals(3, a.getCount());
+        assertEquals(512, a.getSum());
+        assertEquals(500, a.getMax());
+        assertEquals(500, a.getPercentile(100));
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.atomichive.core.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Ranked Skip List Test
+ */
+public class RankedSkipListTest {
+
+    // Highest score first, ties broken by key
+    private static final Comparator<int[]> ORDER = (a, b) -> (a[1] != b[1])
+            ? Integer.compare(b[1], a[1])
+            : Integer.compare(a[0], b[0]);
+
+
+    @Test
+    public void ranksAndRanges () {
+
+        RankedSkipList<Integer, int[]> list = new RankedSkipList<>(ORDER);
+
+        list.put(1, new int[] {1, 10});
+        list.put(2, new int[] {2, 30});
+        list.put(3, new int[] {3, 20});
+
+        assertEquals(0, list.rank(2));
+        assertEquals(1, list.rank(3));
+        assertEquals(2, list.rank(1));
+        assertEquals(-1, list.rank(4));
+
+        // Move to the top
+        list.put(1, new int[] {1, 40});
+        assertEquals(0, list.rank(1));
+        assertEquals(3, list.size());
+
+        List<int[]> page = list.range(1, 5);
+        assertEquals(2, page.size());
+        assertEquals(2, page.get(0)[0]);
+        assertEquals(3, page.get(1)[0]);
+
+        assertNull(list.get(3));
+
+    }
+
+
+    @Test
+    public void matchesSortedList () {
+
+        RankedSkipList<Integer, int[]> list = new RankedSkipList<>(ORDER);
+        Map<Integer, int[]> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+
+            int key = random.nextInt(500);
+
+            if (random.nextInt(4) == 0) {
+                list.remove(key);
+                expected.remove(key);
+            } else {
+                int[] value = {key, random.nextInt(100)};
+                list.put(key, value);
+                expected.put(key, value);
+            }
+
+        }
+
+        List<int[]> sorted = new ArrayList<>(expected.values());
+        sorted.sort(ORDER);
+
+        assertEquals(sorted.size(), list.size());
+
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            assertEquals(sorted.get(rank)[0], list.get(rank)[0]);
+            assertEquals(rank, list.rank(sorted.get(rank)[0]));
+        }
+
+        List<int[]> page = list.range(100, 50);
+        for (int i = 0; i < page.size(); i++)
+            assertEquals(sorted.get(100 + i)[0], page.get(i)[0]);
+
+    }
+
+}
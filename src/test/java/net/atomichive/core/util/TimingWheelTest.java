@@ -0,0 +1,71 @@
+package net.atomichive.core.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Timing Wheel Test
+ */
+public class TimingWheelTest {
+
+    @Test
+    public void firesOnlyWhenDue () {
+
+        TimingWheel<String> wheel = new TimingWheel<>(8);
+        List<String> fired = new ArrayList<>();
+
+        wheel.schedule("a", 2);
+        wheel.schedule("b", 3);
+
+        assertEquals(0, wheel.advance((item) -> { fired.add(item); return 0; }));
+        assertEquals(1, wheel.advance((item) -> { fired.add(item); return 0; }));
+        assertEquals(1, wheel.advance((item) -> { fired.add(item); return 0; }));
+
+        assertEquals("a", fired.get(0));
+        assertEquals("b", fired.get(1));
+        assertEquals(0, wheel.size());
+
+    }
+
+
+    @Test
+    public void handlesDelaysLongerThanWheel () {
+
+        TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.schedule("late", 10);
+
+        int advances = 0;
+        int due = 0;
+
+        while (due == 0) {
+            due = wheel.advance((item) -> 0);
+            advances++;
+        }
+
+        assertEquals(10, advances);
+
+    }
+
+
+    @Test
+    public void reschedulesPeriodicItems () {
+
+        TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.schedule("timer", 4);
+
+        int fired = 0;
+
+        // Rescheduling into the slot being advanced must not fire twice
+        for (int i = 0; i < 20; i++)
+            fired += wheel.advance((item) -> 4);
+
+        assertEquals(5, fired);
+        assertEquals(1, wheel.size());
+
+    }
+
+}